@@ -9,6 +9,7 @@ plugins {
 
     id("io.github.gradle-nexus.publish-plugin") version "1.3.0"
     id("org.jetbrains.dokka") version "1.9.10" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 group = "io.github.dpflux"
@@ -374,3 +375,30 @@ project(":jcachex-spring") {
         }
     }
 }
+
+project(":jcachex-benchmarks") {
+    apply(plugin = "me.champeau.jmh")
+
+    dependencies {
+        "jmhImplementation"(project(":jcachex-core"))
+    }
+
+    // Benchmarks live in src/jmh/java. Run them with ./gradlew :jcachex-benchmarks:jmh, optionally
+    // narrowed with -Pjmh.includes=<regex> and with the threads of each group set by -Pjmh.threadGroups=6,2
+    configure<me.champeau.jmh.JmhParameters> {
+        jmhVersion.set("1.37")
+        fork.set(1)
+        warmupIterations.set(3)
+        iterations.set(5)
+        profilers.add("gc")
+        resultFormat.set("JSON")
+        (project.findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+        (project.findProperty("jmh.threadGroups") as String?)?.let { groups ->
+            threadGroups.set(groups.split(",").map { it.trim().toInt() })
+        }
+    }
+
+    // Benchmarks are run, not published
+    tasks.withType<PublishToMavenRepository>().configureEach { enabled = false }
+    tasks.withType<PublishToMavenLocal>().configureEach { enabled = false }
+}
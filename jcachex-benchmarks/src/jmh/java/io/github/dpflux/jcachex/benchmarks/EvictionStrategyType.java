@@ -0,0 +1,125 @@
+package io.github.dpflux.jcachex.benchmarks;
+
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.eviction.ARCEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.AdaptivePolicySelector;
+import io.github.dpflux.jcachex.eviction.CompositeEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.EvictionStrategy;
+import io.github.dpflux.jcachex.eviction.FIFOEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.FILOEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.GdsfEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.LFUEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.LRUEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.MRUEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.S3FifoEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.SieveEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.WTinyLFUEvictionStrategy;
+import io.github.dpflux.jcachex.eviction.WeightBasedEvictionStrategy;
+
+import java.util.Arrays;
+
+/**
+ * The eviction strategies under benchmark, each able to configure a cache
+ * bounded to a given number of entries.
+ */
+public enum EvictionStrategyType {
+    LRU {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new LRUEvictionStrategy<>();
+        }
+    },
+    LFU {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new LFUEvictionStrategy<>();
+        }
+    },
+    FIFO {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new FIFOEvictionStrategy<>();
+        }
+    },
+    FILO {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new FILOEvictionStrategy<>();
+        }
+    },
+    MRU {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new MRUEvictionStrategy<>();
+        }
+    },
+    WEIGHT {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new WeightBasedEvictionStrategy<>(maximumSize);
+        }
+
+        @Override
+        <K, V> CacheConfig.Builder<K, V> configure(CacheConfig.Builder<K, V> builder, long maximumSize) {
+            // Unit weights keep the bound comparable with the size-limited strategies
+            return builder
+                    .maximumWeight(maximumSize)
+                    .weigher((key, value) -> 1L)
+                    .evictionStrategy(create(maximumSize));
+        }
+    },
+    COMPOSITE {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new CompositeEvictionStrategy<>(Arrays.asList(
+                    new LRUEvictionStrategy<>(), new LFUEvictionStrategy<>()));
+        }
+    },
+    WTINYLFU {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new WTinyLFUEvictionStrategy<>(maximumSize);
+        }
+    },
+    SIEVE {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new SieveEvictionStrategy<>();
+        }
+    },
+    S3FIFO {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new S3FifoEvictionStrategy<>(maximumSize);
+        }
+    },
+    ARC {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new ARCEvictionStrategy<>(maximumSize);
+        }
+    },
+    GDSF {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new GdsfEvictionStrategy<>();
+        }
+    },
+    ADAPTIVE {
+        @Override
+        <K, V> EvictionStrategy<K, V> create(long maximumSize) {
+            return new AdaptivePolicySelector<>(maximumSize);
+        }
+    };
+
+    abstract <K, V> EvictionStrategy<K, V> create(long maximumSize);
+
+    /**
+     * Bounds the cache being built to the given size using this strategy.
+     */
+    <K, V> CacheConfig.Builder<K, V> configure(CacheConfig.Builder<K, V> builder, long maximumSize) {
+        return builder
+                .maximumSize(maximumSize)
+                .evictionStrategy(create(maximumSize));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.dpflux.jcachex.benchmarks;
+
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reads, writes and a mix of both against a bounded
+ * {@link DefaultCache}, for every eviction strategy and key distribution.
+ * <p>
+ * Each group runs with eight threads by default; pass different thread counts
+ * per group (for example {@code -tg 1}, {@code -tg 4} or, for the mixed group,
+ * {@code -tg 3,1}) to see how each strategy scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GetPutBenchmark {
+    private static final int MAXIMUM_SIZE = 1 << 14;
+    private static final int KEY_SPACE = MAXIMUM_SIZE * 4;
+    private static final int SEQUENCE_LENGTH = 1 << 20;
+    private static final int MASK = SEQUENCE_LENGTH - 1;
+
+    @Param({"LRU", "LFU", "FIFO", "FILO", "MRU", "WEIGHT", "COMPOSITE", "WTINYLFU", "SIEVE", "S3FIFO", "ARC", "GDSF", "ADAPTIVE"})
+    EvictionStrategyType strategy;
+
+    @Param({"ZIPFIAN", "SCAN", "UNIFORM"})
+    KeyDistribution distribution;
+
+    DefaultCache<Integer, Integer> cache;
+    Integer[] keys;
+
+    /**
+     * The position of each thread in the key sequence, starting at a random
+     * offset so that threads do not move in lockstep.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.keys(SEQUENCE_LENGTH, KEY_SPACE);
+        cache = new DefaultCache<>(strategy.configure(CacheConfig.<Integer, Integer>builder(), MAXIMUM_SIZE)
+                .initialCapacity(MAXIMUM_SIZE)
+                .build());
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            cache.put(keys[i], keys[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Benchmark
+    @Group("read_only")
+    @GroupThreads(8)
+    public Integer readOnly(ThreadState thread) {
+        return cache.get(keys[thread.index++ & MASK]);
+    }
+
+    @Benchmark
+    @Group("write_only")
+    @GroupThreads(8)
+    public void writeOnly(ThreadState thread) {
+        Integer key = keys[thread.index++ & MASK];
+        cache.put(key, key);
+    }
+
+    @Benchmark
+    @Group("readwrite")
+    @GroupThreads(6)
+    public Integer readwriteGet(ThreadState thread) {
+        return cache.get(keys[thread.index++ & MASK]);
+    }
+
+    @Benchmark
+    @Group("readwrite")
+    @GroupThreads(2)
+    public void readwritePut(ThreadState thread) {
+        Integer key = keys[thread.index++ & MASK];
+        cache.put(key, key);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.dpflux.jcachex.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Access patterns that benchmarks replay from a precomputed sequence of keys,
+ * so that generating keys costs nothing during measurement.
+ */
+public enum KeyDistribution {
+    /**
+     * Every key is equally likely, so the hit rate roughly equals the fraction
+     * of the key space that fits in the cache.
+     */
+    UNIFORM {
+        @Override
+        int[] ranks(int count, int keySpace, Random random) {
+            int[] ranks = new int[count];
+            for (int i = 0; i < count; i++) {
+                ranks[i] = random.nextInt(keySpace);
+            }
+            return ranks;
+        }
+    },
+
+    /**
+     * A few keys receive most accesses, following a Zipf law with the skew
+     * commonly used for cache workloads.
+     */
+    ZIPFIAN {
+        @Override
+        int[] ranks(int count, int keySpace, Random random) {
+            double zetan = zeta(keySpace, ZIPF_SKEW);
+            double alpha = 1.0 / (1.0 - ZIPF_SKEW);
+            double eta = (1.0 - Math.pow(2.0 / keySpace, 1.0 - ZIPF_SKEW)) / (1.0 - zeta(2, ZIPF_SKEW) / zetan);
+            int[] ranks = new int[count];
+            for (int i = 0; i < count; i++) {
+                double u = random.nextDouble();
+                double uz = u * zetan;
+                if (uz < 1.0) {
+                    ranks[i] = 0;
+                } else if (uz < 1.0 + Math.pow(0.5, ZIPF_SKEW)) {
+                    ranks[i] = 1;
+                } else {
+                    ranks[i] = Math.min(keySpace - 1, (int) (keySpace * Math.pow(eta * u - eta + 1.0, alpha)));
+                }
+            }
+            return ranks;
+        }
+    },
+
+    /**
+     * A sequential scan cycling over a key space larger than the cache, the
+     * pattern that defeats recency-based policies.
+     */
+    SCAN {
+        @Override
+        int[] ranks(int count, int keySpace, Random random) {
+            int[] ranks = new int[count];
+            for (int i = 0; i < count; i++) {
+                ranks[i] = i % keySpace;
+            }
+            return ranks;
+        }
+    };
+
+    private static final double ZIPF_SKEW = 0.99;
+    private static final long SEED = 0x5DEECE66DL;
+
+    abstract int[] ranks(int count, int keySpace, Random random);
+
+    /**
+     * Returns a repeatable sequence of keys drawn from a key space of the given
+     * size. Ranks are scattered over the integers so that popular keys do not
+     * share hash buckets.
+     *
+     * @param count    the length of the sequence, a power of two
+     * @param keySpace the number of distinct keys
+     * @return the keys, boxed once up front
+     */
+    public Integer[] keys(int count, int keySpace) {
+        int[] ranks = ranks(count, keySpace, new Random(SEED));
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ranks[i] * 0x9E3779B1;
+        }
+        return keys;
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0.0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1.0 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.dpflux.jcachex.benchmarks;
+
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.CacheStats;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reads that keep missing on a few hot keys while an invalidating
+ * thread removes them, so that concurrent misses must share a single loader
+ * call instead of each paying for their own. Alongside the throughput, the
+ * {@code loads} and {@code coalescedLoads} counters report how many misses ran
+ * the loader and how many joined a load already in flight.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoadCoalescingBenchmark {
+
+    @Param({"1", "16", "256"})
+    int hotKeys;
+
+    /**
+     * The CPU work of one load, in JMH tokens.
+     */
+    @Param({"1000"})
+    int loadCost;
+
+    DefaultCache<Integer, Integer> cache;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt();
+    }
+
+    /**
+     * The loads the cache reported during each iteration. Only the invalidating
+     * thread uses it, so that the cache-wide counts are reported once.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoadCounters {
+        public long loads;
+        public long coalescedLoads;
+
+        @Setup(Level.Iteration)
+        public void start(LoadCoalescingBenchmark benchmark) {
+            CacheStats stats = benchmark.cache.stats();
+            loads = -stats.loadCount();
+            coalescedLoads = -stats.coalescedLoadCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(LoadCoalescingBenchmark benchmark) {
+            CacheStats stats = benchmark.cache.stats();
+            loads += stats.loadCount();
+            coalescedLoads += stats.coalescedLoadCount();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int cost = loadCost;
+        cache = new DefaultCache<>(CacheConfig.<Integer, Integer>builder()
+                .maximumSize(1024L)
+                .loader(key -> {
+                    Blackhole.consumeCPU(cost);
+                    return key;
+                })
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Benchmark
+    @Group("coalesce")
+    @GroupThreads(7)
+    public Integer get(ThreadState thread) {
+        return cache.get((thread.index++ & Integer.MAX_VALUE) % hotKeys);
+    }
+
+    @Benchmark
+    @Group("coalesce")
+    @GroupThreads(1)
+    public Integer invalidate(ThreadState thread, LoadCounters counters) {
+        return cache.remove((thread.index++ & Integer.MAX_VALUE) % hotKeys);
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A cache whose values are computed asynchronously. Lookups return futures
+ * immediately: a value that is already present is returned as a completed
+ * future, and a value that is still loading is returned as its in-flight
+ * future, so no caller thread is parked while a load is pending.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public interface AsyncCache<K, V> {
+    /**
+     * Returns the future associated with the key in this cache, or null if there
+     * is neither a cached value nor an in-flight load for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the future for the value, or null if absent
+     */
+    CompletableFuture<V> getIfPresent(K key);
+
+    /**
+     * Returns the future associated with the key in this cache, starting a load
+     * with the configured loader if necessary.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return a future that completes with the value, or with null if there is
+     *         no value and no loader is configured
+     */
+    CompletableFuture<V> get(K key);
+
+    /**
+     * Returns the future associated with the key in this cache, starting a load
+     * with the given loader if necessary. Concurrent callers for the same key
+     * receive the same in-flight future.
+     *
+     * @param key    the key whose associated value is to be returned
+     * @param loader the function used to start loading the value if it is absent
+     * @return a future that completes with the value
+     */
+    CompletableFuture<V> get(K key, Function<K, CompletableFuture<V>> loader);
+
+    /**
+     * Associates a value that may still be computing with the key. If the future
+     * fails, the mapping is removed automatically.
+     *
+     * @param key         key with which the value is to be associated
+     * @param valueFuture the future value to be associated with the key
+     */
+    void put(K key, CompletableFuture<V> valueFuture);
+
+    /**
+     * Removes the mapping for a key, including any in-flight load, from this
+     * cache.
+     *
+     * @param key key whose mapping is to be removed from the cache
+     */
+    void remove(K key);
+
+    /**
+     * Removes all mappings from this cache.
+     */
+    void clear();
+
+    /**
+     * Returns the approximate number of completed entries in this cache.
+     *
+     * @return the number of entries in this cache
+     */
+    long size();
+
+    /**
+     * Returns the cache statistics.
+     *
+     * @return the cache statistics
+     */
+    CacheStats stats();
+
+    /**
+     * Returns a synchronous view of the completed values in this cache.
+     *
+     * @return a view of this cache as a {@link Cache}
+     */
+    Cache<K, V> synchronous();
+
+    /**
+     * Returns the cache configuration.
+     *
+     * @return the cache configuration
+     */
+    CacheConfig<K, V> config();
+}
@@ -1,9 +1,12 @@
 package io.github.dpflux.jcachex;
 
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * A thread-safe cache that provides a unified API for both Kotlin and Java
@@ -23,6 +26,56 @@ public interface Cache<K, V> {
      */
     V get(K key);
 
+    /**
+     * Returns the value associated with the key in this cache, obtaining it from
+     * the given loader if necessary. {@link DefaultCache} coalesces concurrent
+     * calls for the same absent key: the loader runs once and every caller
+     * receives its result.
+     * <p>
+     * The default implementation calls {@link #get(Object)} and, if that returns
+     * null, invokes the loader and {@link #put(Object, Object) puts} a non-null
+     * result. It does not coalesce concurrent calls, and exceptions thrown by
+     * the loader propagate to the caller.
+     *
+     * @param key    the key whose associated value is to be returned
+     * @param loader the function used to compute the value if it is absent
+     * @return the current or newly loaded value, or null if the loader failed or
+     *         returned null
+     */
+    default V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the values associated with the keys in this cache. In
+     * {@link DefaultCache}, absent keys are fetched with a single call to the
+     * configured bulk loader if there is one, and otherwise one at a time with
+     * the configured loader.
+     * <p>
+     * The default implementation looks each key up with {@link #get(Object)}.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @return a map of the keys to their present or newly loaded values, omitting
+     *         keys that have no value
+     */
+    default Map<K, V> getAll(Iterable<K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
     /**
      * Associates the specified value with the specified key in this cache.
      *
@@ -31,6 +84,20 @@ public interface Cache<K, V> {
      */
     void put(K key, V value);
 
+    /**
+     * Copies all of the mappings from the specified map to this cache.
+     * {@link DefaultCache} runs eviction once for the whole batch rather than
+     * after every entry.
+     * <p>
+     * The default implementation calls {@link #put(Object, Object)} for each
+     * mapping.
+     *
+     * @param map mappings to be stored in this cache
+     */
+    default void putAll(Map<K, V> map) {
+        map.forEach(this::put);
+    }
+
     /**
      * Removes the mapping for a key from this cache if it is present.
      *
@@ -40,6 +107,19 @@ public interface Cache<K, V> {
      */
     V remove(K key);
 
+    /**
+     * Removes the mappings for the specified keys from this cache.
+     * <p>
+     * The default implementation calls {@link #remove(Object)} for each key.
+     *
+     * @param keys keys whose mappings are to be removed from the cache
+     */
+    default void invalidateAll(Iterable<K> keys) {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
     /**
      * Removes all mappings from this cache.
      */
@@ -88,6 +168,24 @@ public interface Cache<K, V> {
      */
     CacheStats stats();
 
+    /**
+     * Writes the contents of this cache to a file, including each entry's
+     * expiration deadline and the approximate eviction order, so that they can
+     * be restored after a restart. Requires key and value serializers in the
+     * cache configuration.
+     * <p>
+     * The default implementation throws {@link UnsupportedOperationException}.
+     *
+     * @param path the file to write
+     * @throws IllegalStateException if the configuration has no key or value
+     *                               serializer
+     * @throws java.io.UncheckedIOException if the snapshot cannot be written
+     * @throws UnsupportedOperationException if the cache cannot be snapshotted
+     */
+    default void snapshot(Path path) {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getName());
+    }
+
     /**
      * Asynchronously returns the value associated with the key in this cache.
      *
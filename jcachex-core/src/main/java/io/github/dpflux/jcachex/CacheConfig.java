@@ -1,14 +1,18 @@
 package io.github.dpflux.jcachex;
 
 import io.github.dpflux.jcachex.eviction.EvictionStrategy;
+import io.github.dpflux.jcachex.serialization.Serializer;
 
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration options for a cache.
@@ -23,17 +27,34 @@ public class CacheConfig<K, V> {
     private final Duration expireAfterWrite;
     private final Duration expireAfterAccess;
     private final EvictionStrategy<K, V> evictionStrategy;
+    private final Supplier<? extends EvictionStrategy<K, V>> evictionStrategySupplier;
     private final boolean weakKeys;
     private final boolean weakValues;
     private final boolean softValues;
     private final Function<K, V> loader;
     private final Function<K, CompletableFuture<V>> asyncLoader;
+    private final Function<Set<K>, Map<K, V>> bulkLoader;
     private final Duration refreshAfterWrite;
+    private final Executor refreshExecutor;
     private final boolean recordStats;
+    private final Supplier<? extends StatsCounter> statsCounterSupplier;
+    private final boolean recordLatency;
+    private final int latencySampleInterval;
     private final int initialCapacity;
     private final int concurrencyLevel;
+    private final boolean segmented;
     private final String directory;
+    private final boolean diskTier;
+    private final boolean offHeap;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int offHeapSlabSize;
+    private final int diskSegmentSize;
+    private final Long maximumDiskSize;
+    private final Ticker ticker;
     private final Set<CacheEventListener<K, V>> listeners;
+    private final Executor listenerExecutor;
+    private final int listenerQueueCapacity;
 
     private CacheConfig(Builder<K, V> builder) {
         this.maximumSize = builder.maximumSize;
@@ -42,17 +63,34 @@ public class CacheConfig<K, V> {
         this.expireAfterWrite = builder.expireAfterWrite;
         this.expireAfterAccess = builder.expireAfterAccess;
         this.evictionStrategy = builder.evictionStrategy;
+        this.evictionStrategySupplier = builder.evictionStrategySupplier;
         this.weakKeys = builder.weakKeys;
         this.weakValues = builder.weakValues;
         this.softValues = builder.softValues;
         this.loader = builder.loader;
         this.asyncLoader = builder.asyncLoader;
+        this.bulkLoader = builder.bulkLoader;
         this.refreshAfterWrite = builder.refreshAfterWrite;
+        this.refreshExecutor = builder.refreshExecutor;
         this.recordStats = builder.recordStats;
+        this.statsCounterSupplier = builder.statsCounterSupplier;
+        this.recordLatency = builder.recordLatency;
+        this.latencySampleInterval = builder.latencySampleInterval;
         this.initialCapacity = builder.initialCapacity;
         this.concurrencyLevel = builder.concurrencyLevel;
+        this.segmented = builder.segmented;
         this.directory = builder.directory;
+        this.diskTier = builder.diskTier;
+        this.offHeap = builder.offHeap;
+        this.keySerializer = builder.keySerializer;
+        this.valueSerializer = builder.valueSerializer;
+        this.offHeapSlabSize = builder.offHeapSlabSize;
+        this.diskSegmentSize = builder.diskSegmentSize;
+        this.maximumDiskSize = builder.maximumDiskSize;
+        this.ticker = builder.ticker;
         this.listeners = new HashSet<>(builder.listeners);
+        this.listenerExecutor = builder.listenerExecutor;
+        this.listenerQueueCapacity = builder.listenerQueueCapacity;
     }
 
     public Long getMaximumSize() {
@@ -79,6 +117,14 @@ public class CacheConfig<K, V> {
         return evictionStrategy;
     }
 
+    /**
+     * Returns the factory for eviction strategies, or null if the cache uses
+     * the {@link #getEvictionStrategy() shared strategy} or the default one.
+     */
+    public Supplier<? extends EvictionStrategy<K, V>> getEvictionStrategySupplier() {
+        return evictionStrategySupplier;
+    }
+
     public boolean isWeakKeys() {
         return weakKeys;
     }
@@ -99,14 +145,47 @@ public class CacheConfig<K, V> {
         return asyncLoader;
     }
 
+    public Function<Set<K>, Map<K, V>> getBulkLoader() {
+        return bulkLoader;
+    }
+
     public Duration getRefreshAfterWrite() {
         return refreshAfterWrite;
     }
 
+    /**
+     * Returns the executor that runs background refreshes, or null for the
+     * common fork-join pool.
+     */
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
     public boolean isRecordStats() {
         return recordStats;
     }
 
+    /**
+     * Returns the supplier of the counter each cache built from this
+     * configuration records its statistics with. Ignored when statistics
+     * recording is disabled.
+     */
+    public Supplier<? extends StatsCounter> getStatsCounterSupplier() {
+        return statsCounterSupplier;
+    }
+
+    public boolean isRecordLatency() {
+        return recordLatency;
+    }
+
+    /**
+     * Returns how often reads and writes are timed when latency recording is
+     * enabled: on average one operation in this many. Loads are always timed.
+     */
+    public int getLatencySampleInterval() {
+        return latencySampleInterval;
+    }
+
     public int getInitialCapacity() {
         return initialCapacity;
     }
@@ -115,10 +194,70 @@ public class CacheConfig<K, V> {
         return concurrencyLevel;
     }
 
+    /**
+     * Returns true if the cache is split into independently maintained
+     * segments, one per unit of {@link #getConcurrencyLevel() concurrency level}.
+     */
+    public boolean isSegmented() {
+        return segmented;
+    }
+
     public String getDirectory() {
         return directory;
     }
 
+    /**
+     * Returns true if entries evicted from memory are spilled to files in the
+     * {@link #getDirectory() directory}.
+     */
+    public boolean isDiskTier() {
+        return diskTier;
+    }
+
+    /**
+     * Returns true if values are serialized into direct memory instead of being
+     * kept as objects on the heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public Serializer<K> getKeySerializer() {
+        return keySerializer;
+    }
+
+    public Serializer<V> getValueSerializer() {
+        return valueSerializer;
+    }
+
+    public int getOffHeapSlabSize() {
+        return offHeapSlabSize;
+    }
+
+    public int getDiskSegmentSize() {
+        return diskSegmentSize;
+    }
+
+    public Long getMaximumDiskSize() {
+        return maximumDiskSize;
+    }
+
+    public Ticker getTicker() {
+        return ticker;
+    }
+
+    /**
+     * Returns the executor that delivers events to listeners in batches, or
+     * null if listeners are notified synchronously.
+     */
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
+    public int getListenerQueueCapacity() {
+        return listenerQueueCapacity;
+    }
+
     public Set<CacheEventListener<K, V>> getListeners() {
         return new HashSet<>(listeners);
     }
@@ -138,17 +277,34 @@ public class CacheConfig<K, V> {
         private Duration expireAfterWrite;
         private Duration expireAfterAccess;
         private EvictionStrategy<K, V> evictionStrategy;
+        private Supplier<? extends EvictionStrategy<K, V>> evictionStrategySupplier;
         private boolean weakKeys;
         private boolean weakValues;
         private boolean softValues;
         private Function<K, V> loader;
         private Function<K, CompletableFuture<V>> asyncLoader;
+        private Function<Set<K>, Map<K, V>> bulkLoader;
         private Duration refreshAfterWrite;
+        private Executor refreshExecutor;
         private boolean recordStats = true;
+        private Supplier<? extends StatsCounter> statsCounterSupplier = ConcurrentStatsCounter::new;
+        private boolean recordLatency;
+        private int latencySampleInterval = 16;
         private int initialCapacity = 16;
         private int concurrencyLevel = 16;
+        private boolean segmented;
         private String directory;
+        private boolean diskTier;
+        private boolean offHeap;
+        private Serializer<K> keySerializer;
+        private Serializer<V> valueSerializer;
+        private int offHeapSlabSize = 4 * 1024 * 1024;
+        private int diskSegmentSize = 64 * 1024 * 1024;
+        private Long maximumDiskSize;
+        private Ticker ticker = Ticker.systemTicker();
         private Set<CacheEventListener<K, V>> listeners = new HashSet<>();
+        private Executor listenerExecutor;
+        private int listenerQueueCapacity = 1024;
 
         public Builder<K, V> maximumSize(Long maximumSize) {
             this.maximumSize = maximumSize;
@@ -190,16 +346,39 @@ public class CacheConfig<K, V> {
             return this;
         }
 
+        /**
+         * Holds keys weakly, so that an entry is dropped once its key is no
+         * longer referenced outside the cache. Keys are then compared by
+         * identity rather than {@code equals}.
+         */
         public Builder<K, V> weakKeys(boolean weakKeys) {
             this.weakKeys = weakKeys;
             return this;
         }
 
+        /**
+         * Creates a new eviction strategy for each segment of a
+         * {@link #segmented(boolean) segmented} cache. Takes precedence over a
+         * shared {@link #evictionStrategy(EvictionStrategy) strategy}.
+         */
+        public Builder<K, V> evictionStrategySupplier(Supplier<? extends EvictionStrategy<K, V>> supplier) {
+            this.evictionStrategySupplier = supplier;
+            return this;
+        }
+
+        /**
+         * Holds values weakly, so that an entry is dropped once its value is no
+         * longer referenced outside the cache.
+         */
         public Builder<K, V> weakValues(boolean weakValues) {
             this.weakValues = weakValues;
             return this;
         }
 
+        /**
+         * Holds values softly, so that the garbage collector may drop entries
+         * when memory runs low instead of failing with an out-of-memory error.
+         */
         public Builder<K, V> softValues(boolean softValues) {
             this.softValues = softValues;
             return this;
@@ -215,16 +394,54 @@ public class CacheConfig<K, V> {
             return this;
         }
 
+        public Builder<K, V> bulkLoader(Function<Set<K>, Map<K, V>> bulkLoader) {
+            this.bulkLoader = bulkLoader;
+            return this;
+        }
+
+        /**
+         * Refreshes entries on access once they are older than the duration. A
+         * read past the deadline still returns the current value right away,
+         * and starts a single background reload of the key on the
+         * {@link #refreshExecutor(Executor) refresh executor}. Reads that arrive
+         * while it runs do not start another. A {@link CacheLoader} can
+         * override {@link CacheLoader#reload} to fetch conditionally.
+         */
         public Builder<K, V> refreshAfterWrite(Duration duration) {
             this.refreshAfterWrite = duration;
             return this;
         }
 
+        /**
+         * Sets the executor for background refreshes. Defaults to the common
+         * fork-join pool.
+         */
+        public Builder<K, V> refreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
         public Builder<K, V> recordStats(boolean recordStats) {
             this.recordStats = recordStats;
             return this;
         }
 
+        public Builder<K, V> statsCounter(Supplier<? extends StatsCounter> statsCounterSupplier) {
+            this.statsCounterSupplier = statsCounterSupplier;
+            this.recordStats = true;
+            return this;
+        }
+
+        public Builder<K, V> recordLatency(boolean recordLatency) {
+            this.recordLatency = recordLatency;
+            return this;
+        }
+
+        public Builder<K, V> latencySampleInterval(int latencySampleInterval) {
+            this.latencySampleInterval = latencySampleInterval;
+            return this;
+        }
+
         public Builder<K, V> initialCapacity(int initialCapacity) {
             this.initialCapacity = initialCapacity;
             return this;
@@ -235,16 +452,121 @@ public class CacheConfig<K, V> {
             return this;
         }
 
+        /**
+         * Splits the cache into segments, as many as the concurrency level
+         * rounded up to a power of two. Each segment owns its own map, eviction
+         * order, weight counter and maintenance lock, so that writers to
+         * different segments never contend on policy upkeep. Size and weight
+         * limits are divided evenly between segments and enforced per segment,
+         * which makes them approximate. A custom eviction strategy must be given
+         * as a {@link #evictionStrategySupplier(Supplier) supplier}.
+         */
+        public Builder<K, V> segmented(boolean segmented) {
+            this.segmented = segmented;
+            return this;
+        }
+
+        /**
+         * Sets the directory the cache keeps its files in.
+         * <p>
+         * If a {@link #keySerializer(Serializer) key serializer} and a
+         * {@link #valueSerializer(Serializer) value serializer} are set, the
+         * cache snapshots its contents into the directory when it is closed and
+         * restores them when it is next created. With a
+         * {@link #diskTier(boolean) disk tier}, the directory also holds its
+         * segment files.
+         */
         public Builder<K, V> directory(String directory) {
             this.directory = directory;
             return this;
         }
 
+        /**
+         * Enables a disk tier in the {@link #directory(String) directory}.
+         * Entries evicted for size or weight are written to memory-mapped segment
+         * files there and moved back into memory when they are read again.
+         * Requires a directory and a {@link #valueSerializer(Serializer) value
+         * serializer}.
+         * <p>
+         * The tier is an overflow area for the lifetime of one cache, not a
+         * persistent store: its files are deleted when the cache is created and
+         * when it is closed.
+         */
+        public Builder<K, V> diskTier(boolean diskTier) {
+            this.diskTier = diskTier;
+            return this;
+        }
+
+        /**
+         * Stores values off the heap, in slabs of direct memory, so that heap
+         * usage does not grow with the size of the values. Requires a
+         * {@link #valueSerializer(Serializer) value serializer}. Unless a weigher
+         * is set, the weight of an entry is its serialized size in bytes, so
+         * {@link #maximumWeight(Long)} bounds the memory used by live values.
+         */
+        public Builder<K, V> offHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+            return this;
+        }
+
+        public Builder<K, V> keySerializer(Serializer<K> keySerializer) {
+            this.keySerializer = keySerializer;
+            return this;
+        }
+
+        public Builder<K, V> valueSerializer(Serializer<V> valueSerializer) {
+            this.valueSerializer = valueSerializer;
+            return this;
+        }
+
+        public Builder<K, V> offHeapSlabSize(int offHeapSlabSize) {
+            this.offHeapSlabSize = offHeapSlabSize;
+            return this;
+        }
+
+        public Builder<K, V> diskSegmentSize(int diskSegmentSize) {
+            this.diskSegmentSize = diskSegmentSize;
+            return this;
+        }
+
+        public Builder<K, V> maximumDiskSize(Long maximumDiskSize) {
+            this.maximumDiskSize = maximumDiskSize;
+            return this;
+        }
+
+        public Builder<K, V> ticker(Ticker ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
         public Builder<K, V> addListener(CacheEventListener<K, V> listener) {
             this.listeners.add(listener);
             return this;
         }
 
+        /**
+         * Delivers events to listeners on the executor instead of the thread
+         * that caused them. Events are queued and handed to
+         * {@link CacheEventListener#onEvents(java.util.List)} in batches, in the
+         * order they happened, by one task at a time. A slow listener then only
+         * delays writers once the queue is full, and a writer that waits for
+         * about a second drops its event instead; see
+         * {@link DefaultCache#droppedEventCount()}.
+         */
+        public Builder<K, V> listenerExecutor(Executor listenerExecutor) {
+            this.listenerExecutor = listenerExecutor;
+            return this;
+        }
+
+        /**
+         * Sets how many events may wait for an asynchronous listener executor,
+         * rounded up to a power of two. Defaults to 1024.
+         */
+        public Builder<K, V> listenerQueueCapacity(int listenerQueueCapacity) {
+            this.listenerQueueCapacity = listenerQueueCapacity;
+            return this;
+        }
+
         public CacheConfig<K, V> build() {
             if (maximumSize != null && maximumSize < 1){
                 throw new IllegalArgumentException("Maximum size must be greater than 0");
@@ -255,6 +577,51 @@ public class CacheConfig<K, V> {
             if (expireAfterWrite != null && expireAfterWrite.isNegative()) {
                 throw new IllegalArgumentException("Expire after write duration must be non-negative");
             }
+            if (offHeap && valueSerializer == null) {
+                throw new IllegalArgumentException("Off-heap storage requires a value serializer");
+            }
+            if (initialCapacity < 0) {
+                throw new IllegalArgumentException("Initial capacity must be non-negative");
+            }
+            if (concurrencyLevel < 1) {
+                throw new IllegalArgumentException("Concurrency level must be greater than 0");
+            }
+            if (segmented && evictionStrategy != null && evictionStrategySupplier == null) {
+                throw new IllegalArgumentException("A segmented cache requires an eviction strategy supplier");
+            }
+            if (refreshAfterWrite != null && (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero())) {
+                throw new IllegalArgumentException("Refresh after write duration must be positive");
+            }
+            if (weakValues && softValues) {
+                throw new IllegalArgumentException("Values cannot be both weakly and softly held");
+            }
+            if (offHeap && (weakKeys || weakValues || softValues)) {
+                throw new IllegalArgumentException("Off-heap storage cannot hold weak or soft references");
+            }
+            if (offHeapSlabSize < 1) {
+                throw new IllegalArgumentException("Off-heap slab size must be greater than 0");
+            }
+            if (diskTier && (directory == null || valueSerializer == null)) {
+                throw new IllegalArgumentException("A disk tier requires a directory and a value serializer");
+            }
+            if (diskSegmentSize < 1) {
+                throw new IllegalArgumentException("Disk segment size must be greater than 0");
+            }
+            if (maximumDiskSize != null && maximumDiskSize < diskSegmentSize) {
+                throw new IllegalArgumentException("Maximum disk size must be at least one segment");
+            }
+            if (latencySampleInterval < 1) {
+                throw new IllegalArgumentException("Latency sample interval must be greater than 0");
+            }
+            if (statsCounterSupplier == null) {
+                throw new IllegalArgumentException("Stats counter supplier cannot be null");
+            }
+            if (listenerQueueCapacity < 1) {
+                throw new IllegalArgumentException("Listener queue capacity must be greater than 0");
+            }
+            if (ticker == null) {
+                throw new IllegalArgumentException("Ticker cannot be null");
+            }
             return new CacheConfig<>(this);
         }
     }
@@ -1,5 +1,6 @@
 package io.github.dpflux.jcachex;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -9,20 +10,45 @@ import java.util.concurrent.atomic.AtomicLong;
  * @param <V> the type of the cached value
  */
 public class CacheEntry<V> {
+    /**
+     * Marker for an entry that never expires.
+     */
+    static final long NO_EXPIRATION = Long.MAX_VALUE;
+
     private final V value;
     private final long weight;
-    private final Instant expirationTime;
+    private final long creationNanos;
+    private volatile long expirationNanos;
+    private volatile long lastAccessNanos;
     private final AtomicLong accessCount;
-    private volatile Instant lastAccessTime;
-    private final Instant creationTime;
+    private long loadNanos;
+
+    /**
+     * The expiration timer for this entry, owned by the cache's timer wheel and
+     * only accessed under the cache's maintenance lock.
+     */
+    Object timerNode;
 
     public CacheEntry(V value, long weight, Instant expirationTime) {
+        this(value, weight, System.nanoTime(), expirationTime == null ? NO_EXPIRATION
+                : System.nanoTime() + Duration.between(Instant.now(), expirationTime).toNanos());
+    }
+
+    /**
+     * Creates an entry whose times are readings of the cache's {@link Ticker}.
+     *
+     * @param value           the cached value
+     * @param weight          the weight of the entry
+     * @param creationNanos   the time the entry was written
+     * @param expirationNanos the time the entry expires, or {@link #NO_EXPIRATION}
+     */
+    CacheEntry(V value, long weight, long creationNanos, long expirationNanos) {
         this.value = value;
         this.weight = weight;
-        this.expirationTime = expirationTime;
+        this.creationNanos = creationNanos;
+        this.expirationNanos = expirationNanos;
+        this.lastAccessNanos = creationNanos;
         this.accessCount = new AtomicLong(0);
-        this.lastAccessTime = Instant.now();
-        this.creationTime = Instant.now();
     }
 
     public V getValue() {
@@ -34,11 +60,92 @@ public class CacheEntry<V> {
     }
 
     public boolean isExpired() {
-        return expirationTime != null && Instant.now().isAfter(expirationTime);
+        return isExpired(System.nanoTime());
+    }
+
+    /**
+     * Returns true if the entry has expired at the given ticker reading. Unlike
+     * comparing {@link Instant}s, this allocates nothing.
+     *
+     * @param currentNanos the current time in nanoseconds
+     * @return true if the entry has expired
+     */
+    public boolean isExpired(long currentNanos) {
+        return expirationNanos != NO_EXPIRATION && currentNanos - expirationNanos > 0;
     }
 
     public Instant getExpirationTime() {
-        return expirationTime;
+        long expiration = expirationNanos;
+        return expiration == NO_EXPIRATION ? null : Instant.now().plusNanos(expiration - System.nanoTime());
+    }
+
+    public long getCreationNanos() {
+        return creationNanos;
+    }
+
+    public long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    public long getExpirationNanos() {
+        return expirationNanos;
+    }
+
+    /**
+     * Returns how long the cache's loader took to produce the value, in
+     * nanoseconds, or 0 if the value was written directly. Cost-aware eviction
+     * strategies use this to keep values that are expensive to reload.
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * Records the load time of the value. Only called before the entry is
+     * published to the cache map.
+     */
+    void setLoadNanos(long loadNanos) {
+        this.loadNanos = loadNanos;
+    }
+
+    /**
+     * Moves the expiration deadline, for example to slide it forward on access.
+     */
+    void setExpirationNanos(long expirationNanos) {
+        this.expirationNanos = expirationNanos;
+    }
+
+    /**
+     * Frees any storage held outside this object once the entry has left the
+     * cache. On-heap entries hold none.
+     */
+    void release() {
+    }
+
+    /**
+     * Returns true if the storage of the value has been freed because the entry
+     * was replaced or removed. A reader that gets a null value from a released
+     * entry raced with that write and should look the key up again. On-heap
+     * entries are never released.
+     */
+    boolean isReleased() {
+        return false;
+    }
+
+    /**
+     * Returns true if the garbage collector has reclaimed the key or value of
+     * this entry. Strongly held entries are never collected.
+     */
+    boolean isCollected() {
+        return false;
+    }
+
+    /**
+     * Returns the weak reference under which this entry is stored in the cache
+     * map, or null if its key is held strongly.
+     */
+    Object keyReference() {
+        return null;
     }
 
     public long getAccessCount() {
@@ -46,15 +153,32 @@ public class CacheEntry<V> {
     }
 
     public void incrementAccessCount() {
+        incrementAccessCount(System.nanoTime());
+    }
+
+    /**
+     * Records an access at the given ticker reading.
+     *
+     * @param currentNanos the current time in nanoseconds
+     */
+    public void incrementAccessCount(long currentNanos) {
         accessCount.incrementAndGet();
-        lastAccessTime = Instant.now();
+        lastAccessNanos = currentNanos;
     }
 
+    /**
+     * Returns the wall-clock time of the last access. This is derived from the
+     * nanosecond timestamp and is only meaningful for the system ticker.
+     */
     public Instant getLastAccessTime() {
-        return lastAccessTime;
+        return Instant.now().minusNanos(System.nanoTime() - lastAccessNanos);
     }
 
+    /**
+     * Returns the wall-clock time the entry was written. This is derived from
+     * the nanosecond timestamp and is only meaningful for the system ticker.
+     */
     public Instant getCreationTime() {
-        return creationTime;
+        return Instant.now().minusNanos(System.nanoTime() - creationNanos);
     }
 }
@@ -0,0 +1,106 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * A change to a cache, as delivered in batches to
+ * {@link CacheEventListener#onEvents(java.util.List)}.
+ * <p>
+ * Which of the key, value, reason and error are set depends on the
+ * {@link Type}: {@link Type#CLEAR} events carry none of them, and only
+ * {@link Type#EVICT} events carry a reason and {@link Type#LOAD_ERROR} events
+ * an error.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public final class CacheEvent<K, V> {
+    /**
+     * The kinds of cache events, one per {@link CacheEventListener} callback.
+     */
+    public enum Type {
+        PUT,
+        REMOVE,
+        EVICT,
+        EXPIRE,
+        LOAD,
+        LOAD_ERROR,
+        CLEAR
+    }
+
+    private final Type type;
+    private final K key;
+    private final V value;
+    private final EvictionReason reason;
+    private final Throwable error;
+
+    CacheEvent(Type type, K key, V value, EvictionReason reason, Throwable error) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+        this.reason = reason;
+        this.error = error;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the reason of an eviction, or null for other events.
+     */
+    public EvictionReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the failure of a load, or null for other events.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Invokes the callback of the listener that corresponds to this event.
+     */
+    void dispatchTo(CacheEventListener<K, V> listener) {
+        switch (type) {
+            case PUT:
+                listener.onPut(key, value);
+                break;
+            case REMOVE:
+                listener.onRemove(key, value);
+                break;
+            case EVICT:
+                listener.onEvict(key, value, reason);
+                break;
+            case EXPIRE:
+                listener.onExpire(key, value);
+                break;
+            case LOAD:
+                listener.onLoad(key, value);
+                break;
+            case LOAD_ERROR:
+                listener.onLoadError(key, error);
+                break;
+            case CLEAR:
+                listener.onClear();
+                break;
+            default:
+                throw new IllegalStateException("Unknown event type " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEvent{type=" + type + ", key=" + key + ", value=" + value
+                + (reason != null ? ", reason=" + reason : "")
+                + (error != null ? ", error=" + error : "") + '}';
+    }
+}
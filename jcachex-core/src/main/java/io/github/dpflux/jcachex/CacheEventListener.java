@@ -1,5 +1,7 @@
 package io.github.dpflux.jcachex;
 
+import java.util.List;
+
 /**
  * Interface for cache event listeners.
  *
@@ -61,6 +63,21 @@ public interface CacheEventListener<K, V> {
      */
     void onClear();
 
+    /**
+     * Called with a batch of events when the cache delivers events
+     * asynchronously through a {@link CacheConfig.Builder#listenerExecutor
+     * listener executor}. Events arrive in the order they happened. The default
+     * implementation invokes the individual callbacks; override it to handle a
+     * whole batch at once, for example to publish it as a single message.
+     *
+     * @param events the events, in order
+     */
+    default void onEvents(List<CacheEvent<K, V>> events) {
+        for (CacheEvent<K, V> event : events) {
+            event.dispatchTo(this);
+        }
+    }
+
     /**
      * Creates a new CacheEventListener that does nothing.
      */
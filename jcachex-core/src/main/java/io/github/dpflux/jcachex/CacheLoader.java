@@ -0,0 +1,33 @@
+package io.github.dpflux.jcachex;
+
+import java.util.function.Function;
+
+/**
+ * A loader that can also refresh a value it loaded before. Pass one to
+ * {@link CacheConfig.Builder#loader(Function)} to take part in
+ * {@link CacheConfig.Builder#refreshAfterWrite(java.time.Duration)
+ * refresh-ahead}.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> extends Function<K, V> {
+
+    /**
+     * Computes a new value for a key whose current value is due for refresh.
+     * This runs in the background while readers keep getting the old value.
+     * The default implementation loads the key from scratch; override it to
+     * fetch conditionally, for example returning {@code oldValue} when the
+     * source reports that it has not changed.
+     *
+     * @param key      the key to refresh
+     * @param oldValue the value currently cached
+     * @return the new value, or null to keep the old one until the next read
+     *         past the refresh deadline
+     * @throws Exception if the value cannot be reloaded; the old value is kept
+     */
+    default V reload(K key, V oldValue) throws Exception {
+        return apply(key);
+    }
+}
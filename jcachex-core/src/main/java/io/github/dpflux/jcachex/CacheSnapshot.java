@@ -0,0 +1,178 @@
+package io.github.dpflux.jcachex;
+
+import io.github.dpflux.jcachex.serialization.Serializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and writes the binary snapshot format used to carry cache contents
+ * across restarts.
+ * <p>
+ * A snapshot is a header followed by a stream of records, each holding a
+ * serialized key, a serialized value and the wall-clock time the entry
+ * expires, terminated by an end marker. Records are written in eviction order,
+ * coldest first, so that restoring them in sequence rebuilds that order.
+ * Snapshots are written to a temporary file and moved into place, so a reader
+ * never sees a partial snapshot.
+ */
+final class CacheSnapshot {
+    static final String FILE_NAME = "cache.snapshot";
+    static final long NO_EXPIRATION = Long.MAX_VALUE;
+    private static final int MAGIC = 0x4A435853;
+    private static final int VERSION = 1;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+    private static final int BATCH_SIZE = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * A restored entry.
+     *
+     * @param <K> the type of the key
+     * @param <V> the type of the value
+     */
+    static final class Record<K, V> {
+        final K key;
+        final V value;
+        final long expiresAtMillis;
+
+        Record(K key, V value, long expiresAtMillis) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * Streams records to a temporary file that replaces the target on
+     * {@link #commit()}.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    static final class Writer<K, V> implements Closeable {
+        private final Path target;
+        private final Path temporary;
+        private final Serializer<K> keySerializer;
+        private final Serializer<V> valueSerializer;
+        private final DataOutputStream out;
+        private boolean committed;
+
+        Writer(Path target, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+            this.target = target.toAbsolutePath();
+            if (this.target.getParent() != null) {
+                Files.createDirectories(this.target.getParent());
+            }
+            this.temporary = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+            this.keySerializer = keySerializer;
+            this.valueSerializer = valueSerializer;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        void write(K key, V value, long expiresAtMillis) throws IOException {
+            byte[] keyBytes = keySerializer.serialize(key);
+            byte[] valueBytes = valueSerializer.serialize(value);
+            out.writeByte(RECORD);
+            out.writeLong(expiresAtMillis);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            out.writeInt(valueBytes.length);
+            out.write(valueBytes);
+        }
+
+        void commit() throws IOException {
+            out.writeByte(END);
+            out.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot and hands its records to the consumer in the order they
+     * were written. Records are read sequentially but deserialized in parallel,
+     * a batch at a time.
+     *
+     * @return the number of records read
+     * @throws UncheckedIOException if the file cannot be read or is not a snapshot
+     */
+    static <K, V> int read(Path path, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+            Consumer<Record<K, V>> consumer) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            byte[][] keys = new byte[BATCH_SIZE][];
+            byte[][] values = new byte[BATCH_SIZE][];
+            long[] deadlines = new long[BATCH_SIZE];
+            Record<K, V>[] records = newRecords(BATCH_SIZE);
+            int total = 0;
+            boolean end = false;
+            while (!end) {
+                int count = 0;
+                while (count < BATCH_SIZE) {
+                    byte marker = in.readByte();
+                    if (marker == END) {
+                        end = true;
+                        break;
+                    } else if (marker != RECORD) {
+                        throw new IOException("Corrupt cache snapshot: " + path);
+                    }
+                    deadlines[count] = in.readLong();
+                    keys[count] = readBytes(in);
+                    values[count] = readBytes(in);
+                    count++;
+                }
+                IntStream.range(0, count).parallel().forEach(i -> records[i] = new Record<>(
+                        keySerializer.deserialize(keys[i]), valueSerializer.deserialize(values[i]), deadlines[i]));
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(records[i]);
+                    records[i] = null;
+                }
+                total += count;
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cache snapshot " + path, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Record<K, V>[] newRecords(int count) {
+        return (Record<K, V>[]) new Record<?, ?>[count];
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt cache snapshot");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
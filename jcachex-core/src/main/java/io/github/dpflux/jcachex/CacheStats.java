@@ -1,10 +1,25 @@
 package io.github.dpflux.jcachex;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Statistics for a cache.
+ * <p>
+ * A cache records its statistics through a {@link StatsCounter} and
+ * {@link Cache#stats()} returns a point-in-time copy, created with
+ * {@link #of}. Every instance is also an accumulator whose counters are
+ * updated atomically, but recording into a copy does not affect the cache it
+ * was taken from.
+ * <p>
+ * When latency recording is enabled, snapshots also carry the latency
+ * distributions of loads and of sampled reads and writes. When the cache
+ * evicts with an {@link io.github.dpflux.jcachex.eviction.AdaptivePolicySelector},
+ * they also report the active policy, how often it changed and the hit rates
+ * of the shadow caches.
  */
 public class CacheStats {
     private final AtomicLong hitCount;
@@ -13,48 +28,177 @@ public class CacheStats {
     private final AtomicLong loadCount;
     private final AtomicLong loadFailureCount;
     private final AtomicLong totalLoadTime;
+    private final AtomicLong coalescedLoadCount;
+    private final LatencySnapshot readLatency;
+    private final LatencySnapshot putLatency;
+    private final LatencySnapshot loadLatency;
+    private final String activePolicy;
+    private final long policySwitchCount;
+    private final Map<String, Double> shadowHitRates;
 
+    /**
+     * Returns the counter backing the hit count.
+     *
+     * @deprecated use {@link #hitCount()}
+     */
+    @Deprecated
     public AtomicLong getHitCount() {
         return hitCount;
     }
 
+    /**
+     * Returns the counter backing the miss count.
+     *
+     * @deprecated use {@link #missCount()}
+     */
+    @Deprecated
     public AtomicLong getMissCount() {
         return missCount;
     }
 
+    /**
+     * Returns the counter backing the eviction count.
+     *
+     * @deprecated use {@link #evictionCount()}
+     */
+    @Deprecated
     public AtomicLong getEvictionCount() {
         return evictionCount;
     }
 
+    /**
+     * Returns the counter backing the load count.
+     *
+     * @deprecated use {@link #loadCount()}
+     */
+    @Deprecated
     public AtomicLong getLoadCount() {
         return loadCount;
     }
 
+    /**
+     * Returns the counter backing the load failure count.
+     *
+     * @deprecated use {@link #loadFailureCount()}
+     */
+    @Deprecated
     public AtomicLong getLoadFailureCount() {
         return loadFailureCount;
     }
 
+    /**
+     * Returns the counter backing the total load time.
+     *
+     * @deprecated use {@link #totalLoadTime()}
+     */
+    @Deprecated
     public AtomicLong getTotalLoadTime() {
         return totalLoadTime;
     }
 
+    /**
+     * Returns the counter backing the coalesced load count.
+     *
+     * @deprecated use {@link #coalescedLoadCount()}
+     */
+    @Deprecated
+    public AtomicLong getCoalescedLoadCount() {
+        return coalescedLoadCount;
+    }
+
     public CacheStats() {
-        this.hitCount = new AtomicLong(0);
-        this.missCount = new AtomicLong(0);
-        this.evictionCount = new AtomicLong(0);
-        this.loadCount = new AtomicLong(0);
-        this.loadFailureCount = new AtomicLong(0);
-        this.totalLoadTime = new AtomicLong(0);
+        this(new AtomicLong(0), new AtomicLong(0), new AtomicLong(0), new AtomicLong(0),
+                new AtomicLong(0), new AtomicLong(0), new AtomicLong(0));
     }
 
     public CacheStats(AtomicLong hitCount, AtomicLong missCount, AtomicLong evictionCount,
             AtomicLong loadCount, AtomicLong loadFailureCount, AtomicLong totalLoadTime) {
+        this(hitCount, missCount, evictionCount, loadCount, loadFailureCount, totalLoadTime, new AtomicLong(0));
+    }
+
+    public CacheStats(AtomicLong hitCount, AtomicLong missCount, AtomicLong evictionCount,
+            AtomicLong loadCount, AtomicLong loadFailureCount, AtomicLong totalLoadTime,
+            AtomicLong coalescedLoadCount) {
+        this(hitCount, missCount, evictionCount, loadCount, loadFailureCount, totalLoadTime,
+                coalescedLoadCount, LatencySnapshot.empty(), LatencySnapshot.empty(), LatencySnapshot.empty(),
+                null, 0L, Collections.emptyMap());
+    }
+
+    private CacheStats(AtomicLong hitCount, AtomicLong missCount, AtomicLong evictionCount,
+            AtomicLong loadCount, AtomicLong loadFailureCount, AtomicLong totalLoadTime,
+            AtomicLong coalescedLoadCount,
+            LatencySnapshot readLatency, LatencySnapshot putLatency, LatencySnapshot loadLatency,
+            String activePolicy, long policySwitchCount, Map<String, Double> shadowHitRates) {
         this.hitCount = hitCount;
         this.missCount = missCount;
         this.evictionCount = evictionCount;
         this.loadCount = loadCount;
         this.loadFailureCount = loadFailureCount;
         this.totalLoadTime = totalLoadTime;
+        this.coalescedLoadCount = coalescedLoadCount;
+        this.readLatency = readLatency;
+        this.putLatency = putLatency;
+        this.loadLatency = loadLatency;
+        this.activePolicy = activePolicy;
+        this.policySwitchCount = policySwitchCount;
+        this.shadowHitRates = shadowHitRates;
+    }
+
+    /**
+     * Returns statistics with the given values.
+     *
+     * @param hitCount           the number of cache hits
+     * @param missCount          the number of cache misses
+     * @param evictionCount      the number of evicted entries
+     * @param loadCount          the number of successful loads
+     * @param loadFailureCount   the number of failed loads
+     * @param totalLoadTime      the total time spent loading, in nanoseconds
+     * @param coalescedLoadCount the number of lookups that joined a load in flight
+     * @return the statistics
+     */
+    public static CacheStats of(long hitCount, long missCount, long evictionCount, long loadCount,
+            long loadFailureCount, long totalLoadTime, long coalescedLoadCount) {
+        return new CacheStats(new AtomicLong(hitCount), new AtomicLong(missCount),
+                new AtomicLong(evictionCount), new AtomicLong(loadCount), new AtomicLong(loadFailureCount),
+                new AtomicLong(totalLoadTime), new AtomicLong(coalescedLoadCount));
+    }
+
+    /**
+     * Returns a copy of these statistics with the given latency distributions
+     * attached.
+     *
+     * @param readLatency the latencies of sampled reads
+     * @param putLatency  the latencies of sampled writes
+     * @param loadLatency the latencies of successful loads
+     * @return the copy
+     */
+    public CacheStats withLatency(LatencySnapshot readLatency, LatencySnapshot putLatency,
+            LatencySnapshot loadLatency) {
+        return copy(readLatency, putLatency, loadLatency, activePolicy, policySwitchCount, shadowHitRates);
+    }
+
+    /**
+     * Returns a copy of these statistics with the state of adaptive policy
+     * selection attached.
+     *
+     * @param activePolicy      the name of the policy the cache evicts with
+     * @param policySwitchCount the number of times the cache switched policies
+     * @param shadowHitRates    the latest shadow cache hit rate of each policy
+     * @return the copy
+     */
+    public CacheStats withPolicySelection(String activePolicy, long policySwitchCount,
+            Map<String, Double> shadowHitRates) {
+        return copy(readLatency, putLatency, loadLatency, activePolicy, policySwitchCount,
+                Collections.unmodifiableMap(new LinkedHashMap<>(shadowHitRates)));
+    }
+
+    private CacheStats copy(LatencySnapshot readLatency, LatencySnapshot putLatency, LatencySnapshot loadLatency,
+            String activePolicy, long policySwitchCount, Map<String, Double> shadowHitRates) {
+        return new CacheStats(new AtomicLong(hitCount.get()), new AtomicLong(missCount.get()),
+                new AtomicLong(evictionCount.get()), new AtomicLong(loadCount.get()),
+                new AtomicLong(loadFailureCount.get()), new AtomicLong(totalLoadTime.get()),
+                new AtomicLong(coalescedLoadCount.get()),
+                readLatency, putLatency, loadLatency, activePolicy, policySwitchCount, shadowHitRates);
     }
 
     public long hitCount() {
@@ -81,14 +225,73 @@ public class CacheStats {
         return totalLoadTime.get();
     }
 
+    /**
+     * Returns the number of lookups that waited on a load already in flight for
+     * the same key instead of invoking the loader themselves.
+     */
+    public long coalescedLoadCount() {
+        return coalescedLoadCount.get();
+    }
+
+    /**
+     * Returns the latencies of sampled reads, or an empty snapshot if latency
+     * recording is disabled.
+     */
+    public LatencySnapshot readLatency() {
+        return readLatency;
+    }
+
+    /**
+     * Returns the latencies of sampled writes, or an empty snapshot if latency
+     * recording is disabled.
+     */
+    public LatencySnapshot putLatency() {
+        return putLatency;
+    }
+
+    /**
+     * Returns the latencies of successful loads, or an empty snapshot if
+     * latency recording is disabled.
+     */
+    public LatencySnapshot loadLatency() {
+        return loadLatency;
+    }
+
+    /**
+     * Returns the name of the eviction policy chosen by adaptive policy
+     * selection, or null if the cache does not select its policy adaptively.
+     */
+    public String activePolicy() {
+        return activePolicy;
+    }
+
+    /**
+     * Returns the number of times adaptive policy selection switched the
+     * cache to another eviction policy.
+     */
+    public long policySwitchCount() {
+        return policySwitchCount;
+    }
+
+    /**
+     * Returns the hit rate each candidate policy achieved in its shadow cache
+     * over the last complete window, by policy name, or an empty map if the
+     * cache does not select its policy adaptively.
+     */
+    public Map<String, Double> shadowHitRates() {
+        return shadowHitRates;
+    }
+
     public double hitRate() {
-        long total = hitCount.get() + missCount.get();
-        return total == 0L ? 0.0 : (double) hitCount.get() / total;
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0L ? 0.0 : (double) hits / total;
     }
 
     public double missRate() {
-        long total = hitCount.get() + missCount.get();
-        return total == 0L ? 0.0 : (double) missCount.get() / total;
+        long misses = missCount.get();
+        long total = hitCount.get() + misses;
+        return total == 0L ? 0.0 : (double) misses / total;
     }
 
     public double averageLoadTime() {
@@ -117,14 +320,12 @@ public class CacheStats {
         loadFailureCount.incrementAndGet();
     }
 
+    public void recordCoalescedLoad() {
+        coalescedLoadCount.incrementAndGet();
+    }
+
     public CacheStats snapshot() {
-        return new CacheStats(
-                new AtomicLong(hitCount.get()),
-                new AtomicLong(missCount.get()),
-                new AtomicLong(evictionCount.get()),
-                new AtomicLong(loadCount.get()),
-                new AtomicLong(loadFailureCount.get()),
-                new AtomicLong(totalLoadTime.get()));
+        return withLatency(readLatency, putLatency, loadLatency);
     }
 
     public CacheStats reset() {
@@ -134,6 +335,7 @@ public class CacheStats {
         loadCount.set(0);
         loadFailureCount.set(0);
         totalLoadTime.set(0);
+        coalescedLoadCount.set(0);
         return this;
     }
 
@@ -148,18 +350,26 @@ public class CacheStats {
         if (o == null || getClass() != o.getClass())
             return false;
         CacheStats that = (CacheStats) o;
-        return Objects.equals(hitCount.get(), that.hitCount.get()) &&
-                Objects.equals(missCount.get(), that.missCount.get()) &&
-                Objects.equals(evictionCount.get(), that.evictionCount.get()) &&
-                Objects.equals(loadCount.get(), that.loadCount.get()) &&
-                Objects.equals(loadFailureCount.get(), that.loadFailureCount.get()) &&
-                Objects.equals(totalLoadTime.get(), that.totalLoadTime.get());
+        return hitCount.get() == that.hitCount.get() &&
+                missCount.get() == that.missCount.get() &&
+                evictionCount.get() == that.evictionCount.get() &&
+                loadCount.get() == that.loadCount.get() &&
+                loadFailureCount.get() == that.loadFailureCount.get() &&
+                totalLoadTime.get() == that.totalLoadTime.get() &&
+                coalescedLoadCount.get() == that.coalescedLoadCount.get() &&
+                readLatency.equals(that.readLatency) &&
+                putLatency.equals(that.putLatency) &&
+                loadLatency.equals(that.loadLatency) &&
+                Objects.equals(activePolicy, that.activePolicy) &&
+                policySwitchCount == that.policySwitchCount &&
+                shadowHitRates.equals(that.shadowHitRates);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(hitCount.get(), missCount.get(), evictionCount.get(),
-                loadCount.get(), loadFailureCount.get(), totalLoadTime.get());
+                loadCount.get(), loadFailureCount.get(), totalLoadTime.get(), coalescedLoadCount.get(),
+                readLatency, putLatency, loadLatency, activePolicy, policySwitchCount, shadowHitRates);
     }
 
     @Override
@@ -171,6 +381,13 @@ public class CacheStats {
                 ", loadCount=" + loadCount.get() +
                 ", loadFailureCount=" + loadFailureCount.get() +
                 ", totalLoadTime=" + totalLoadTime.get() +
+                ", coalescedLoadCount=" + coalescedLoadCount.get() +
+                (loadLatency.count() > 0L ? ", loadLatency=" + loadLatency : "") +
+                (readLatency.count() > 0L ? ", readLatency=" + readLatency : "") +
+                (putLatency.count() > 0L ? ", putLatency=" + putLatency : "") +
+                (activePolicy != null ? ", activePolicy=" + activePolicy
+                        + ", policySwitchCount=" + policySwitchCount
+                        + ", shadowHitRates=" + shadowHitRates : "") +
                 '}';
     }
 }
@@ -0,0 +1,37 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Ticker} that returns a cached reading of {@link System#nanoTime()}.
+ * <p>
+ * One daemon thread, started the first time the ticker is used, refreshes the
+ * reading at a fixed resolution and is shared by every cache that uses it.
+ */
+final class CachedTicker implements Ticker {
+    static final CachedTicker INSTANCE = new CachedTicker(TimeUnit.MILLISECONDS.toNanos(1L));
+
+    private final long resolutionNanos;
+    private volatile long nanos;
+
+    private CachedTicker(long resolutionNanos) {
+        this.resolutionNanos = resolutionNanos;
+        this.nanos = System.nanoTime();
+        Thread thread = new Thread(this::tick, "jcachex-ticker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void tick() {
+        for (;;) {
+            LockSupport.parkNanos(this, resolutionNanos);
+            nanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public long read() {
+        return nanos;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe {@link StatsCounter} backed by {@link LongAdder}s.
+ * <p>
+ * Each counter is striped across cells so that threads recording hits
+ * concurrently do not contend on a single memory location. Reading the
+ * counters sums the cells, which makes {@link #snapshot()} more expensive
+ * than recording.
+ */
+public final class ConcurrentStatsCounter implements StatsCounter {
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder coalescedLoadCount = new LongAdder();
+
+    @Override
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    @Override
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    @Override
+    public void recordEviction() {
+        evictionCount.increment();
+    }
+
+    @Override
+    public void recordLoad(long loadTime) {
+        loadCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure() {
+        loadFailureCount.increment();
+    }
+
+    @Override
+    public void recordCoalescedLoad() {
+        coalescedLoadCount.increment();
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of(hitCount.sum(), missCount.sum(), evictionCount.sum(), loadCount.sum(),
+                loadFailureCount.sum(), totalLoadTime.sum(), coalescedLoadCount.sum());
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Default implementation of the AsyncCache interface.
+ * Completed values are stored in a {@link DefaultCache}, which provides
+ * eviction, expiration, statistics and listeners; loads that are still pending
+ * are tracked as futures alongside it and shared by every concurrent caller.
+ * A synchronous loader, if that is all the configuration provides, is run on
+ * the common fork-join pool.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class DefaultAsyncCache<K, V> implements AsyncCache<K, V>, AutoCloseable {
+    private final DefaultCache<K, V> cache;
+
+    /**
+     * Creates a new DefaultAsyncCache with the specified configuration.
+     *
+     * @param config the cache configuration to use
+     * @throws IllegalArgumentException if config is null
+     */
+    public DefaultAsyncCache(CacheConfig<K, V> config) {
+        this.cache = new DefaultCache<>(config);
+    }
+
+    @Override
+    public CompletableFuture<V> getIfPresent(K key) {
+        return cache.getIfPresentAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return cache.getAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key, Function<K, CompletableFuture<V>> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader cannot be null");
+        }
+        return cache.getAsync(key, loader);
+    }
+
+    @Override
+    public void put(K key, CompletableFuture<V> valueFuture) {
+        cache.putAsync(key, valueFuture);
+    }
+
+    @Override
+    public void remove(K key) {
+        cache.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public Cache<K, V> synchronous() {
+        return cache;
+    }
+
+    @Override
+    public CacheConfig<K, V> config() {
+        return cache.config();
+    }
+
+    /**
+     * Closes this cache and releases any resources associated with it.
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -1,18 +1,46 @@
 package io.github.dpflux.jcachex;
 
+import io.github.dpflux.jcachex.eviction.AdaptivePolicySelector;
 import io.github.dpflux.jcachex.eviction.EvictionStrategy;
 import io.github.dpflux.jcachex.eviction.LRUEvictionStrategy;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Default implementation of the Cache interface.
@@ -24,11 +52,28 @@ import java.util.stream.Collectors;
  */
 public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
     private final CacheConfig<K, V> config;
-    private final ConcurrentHashMap<K, CacheEntry<V>> entries;
-    private final CacheStats stats;
-    private final EvictionStrategy<K, V> evictionStrategy;
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+    private final ConcurrentHashMap<Object, CompletableFuture<V>> loads;
+    private final ConcurrentHashMap<Object, CacheEntry<V>> refreshes;
+    private final StatsCounter stats;
+    private final LatencyHistogram readLatency;
+    private final LatencyHistogram putLatency;
+    private final LatencyHistogram loadLatency;
+    private final int latencySampleInterval;
+    private final boolean weakKeys;
+    private final ReferenceQueue<Object> referenceQueue;
+    private final OffHeapStore<V> offHeapStore;
+    private final DiskStore<Object, V> diskStore;
+    private final Ticker ticker;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private final Executor refreshExecutor;
     private final ScheduledExecutorService scheduler;
-    private static final long REFRESH_INTERVAL_SECONDS = 1L;
+    private final EventDispatcher<K, V> events;
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 1L;
+    private static final long DISK_COMPACTION_INTERVAL_SECONDS = 10L;
 
     /**
      * Creates a new DefaultCache with the specified configuration.
@@ -42,42 +87,214 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
         }
 
         this.config = config;
-        this.entries = new ConcurrentHashMap<>();
-        this.stats = new CacheStats();
-        this.evictionStrategy = config.getEvictionStrategy() != null ? config.getEvictionStrategy()
-                : new LRUEvictionStrategy<>();
+        // The listener set is fixed when the configuration is built, and
+        // getListeners() returns a fresh copy, so copy it once rather than on
+        // every notification
+        this.events = new EventDispatcher<>(config.getListeners(), config.getListenerExecutor(),
+                config.getListenerQueueCapacity());
+        this.loads = new ConcurrentHashMap<>();
+        this.refreshes = new ConcurrentHashMap<>();
+        this.stats = config.isRecordStats() ? config.getStatsCounterSupplier().get() : StatsCounter.disabled();
+        this.readLatency = config.isRecordLatency() ? new LatencyHistogram() : null;
+        this.putLatency = config.isRecordLatency() ? new LatencyHistogram() : null;
+        this.loadLatency = config.isRecordLatency() ? new LatencyHistogram() : null;
+        this.latencySampleInterval = config.getLatencySampleInterval();
+        this.ticker = config.getTicker();
+        this.weakKeys = config.isWeakKeys();
+        this.referenceQueue = weakKeys || config.isWeakValues() || config.isSoftValues()
+                ? new ReferenceQueue<>() : null;
+        this.offHeapStore = config.isOffHeap()
+                ? new OffHeapStore<>(config.getValueSerializer(), config.getOffHeapSlabSize())
+                : null;
+        this.diskStore = config.isDiskTier()
+                ? new DiskStore<>(Paths.get(config.getDirectory()), config.getValueSerializer(),
+                        config.getDiskSegmentSize(),
+                        config.getMaximumDiskSize() != null ? config.getMaximumDiskSize() : Long.MAX_VALUE)
+                : null;
+        this.expireAfterWriteNanos = config.getExpireAfterWrite() != null
+                ? config.getExpireAfterWrite().toNanos() : 0L;
+        this.expireAfterAccessNanos = config.getExpireAfterAccess() != null
+                ? config.getExpireAfterAccess().toNanos() : 0L;
+        this.refreshAfterWriteNanos = config.getRefreshAfterWrite() != null
+                && (config.getLoader() != null || config.getAsyncLoader() != null)
+                ? config.getRefreshAfterWrite().toNanos() : 0L;
+        this.refreshExecutor = config.getRefreshExecutor() != null
+                ? config.getRefreshExecutor() : ForkJoinPool.commonPool();
+        boolean expires = config.getExpireAfterWrite() != null || config.getExpireAfterAccess() != null;
+        int segmentCount = config.isSegmented() ? ceilingPowerOfTwo(config.getConcurrencyLevel()) : 1;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = newSegments(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(
+                    new ConcurrentHashMap<>(divide(config.getInitialCapacity(), segmentCount), 0.75f,
+                            Math.max(1, config.getConcurrencyLevel() / segmentCount)),
+                    newEvictionStrategy(),
+                    expires ? new TimerWheel<>(ticker.read()) : null,
+                    config.getMaximumSize() != null ? (Long) divide(config.getMaximumSize(), segmentCount) : null,
+                    config.getMaximumWeight() != null ? (Long) divide(config.getMaximumWeight(), segmentCount) : null);
+        }
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "jcachex-scheduler");
             thread.setDaemon(true);
             return thread;
         });
 
-        if (config.getRefreshAfterWrite() != null) {
-            scheduleRefresh();
+        if (expires || referenceQueue != null) {
+            scheduler.scheduleWithFixedDelay(this::performMaintenance,
+                    MAINTENANCE_INTERVAL_SECONDS, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
         }
+        if (diskStore != null) {
+            scheduler.scheduleWithFixedDelay(diskStore::compact,
+                    DISK_COMPACTION_INTERVAL_SECONDS, DISK_COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        restoreAutomaticSnapshot();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EvictionStrategy<Object, V> newEvictionStrategy() {
+        EvictionStrategy<K, V> strategy = config.getEvictionStrategySupplier() != null
+                ? config.getEvictionStrategySupplier().get()
+                : config.getEvictionStrategy();
+        return strategy != null
+                ? (EvictionStrategy<Object, V>) (EvictionStrategy<?, V>) strategy
+                : new LRUEvictionStrategy<>();
     }
 
     @Override
     public V get(K key) {
+        if (readLatency == null || !sampleLatency()) {
+            return getValue(key);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return getValue(key);
+        } finally {
+            readLatency.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private V getValue(K key) {
         if (key == null) {
             return null;
         }
 
-        CacheEntry<V> entry = entries.get(key);
-        if (entry != null) {
-            if (entry.isExpired()) {
-                remove(key);
-                stats.recordMiss();
-                return null;
+        CacheEntry<V> entry = getEntry(key);
+        long now = ticker.read();
+        while (entry != null && !entry.isExpired(now)) {
+            V value = entry.getValue();
+            if (value != null || (!entry.isCollected() && !entry.isReleased())) {
+                recordHit(key, entry, now);
+                return value;
+            }
+            if (!entry.isReleased()) {
+                break;
             }
-            entry.incrementAccessCount();
-            evictionStrategy.update(key, entry);
-            stats.recordHit();
-            return entry.getValue();
+            // A concurrent write freed the value while it was being read
+            entry = getEntry(key);
         }
 
-        stats.recordMiss();
-        return loadValue(key);
+        V promoted = promote(key);
+        if (promoted != null) {
+            return promoted;
+        }
+        recordMiss(key, entry);
+        if (config.getLoader() == null && config.getAsyncLoader() == null) {
+            return null;
+        }
+        return loadValue(key, entry, () -> invokeLoader(key));
+    }
+
+    @Override
+    public V get(K key, Function<K, V> loader) {
+        if (readLatency == null || !sampleLatency()) {
+            return getValue(key, loader);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return getValue(key, loader);
+        } finally {
+            readLatency.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private V getValue(K key, Function<K, V> loader) {
+        if (key == null) {
+            return null;
+        }
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader cannot be null");
+        }
+
+        CacheEntry<V> entry = getEntry(key);
+        long now = ticker.read();
+        while (entry != null && !entry.isExpired(now)) {
+            V value = entry.getValue();
+            if (value != null || (!entry.isCollected() && !entry.isReleased())) {
+                recordHit(key, entry, now);
+                return value;
+            }
+            if (!entry.isReleased()) {
+                break;
+            }
+            // A concurrent write freed the value while it was being read
+            entry = getEntry(key);
+        }
+
+        V promoted = promote(key);
+        if (promoted != null) {
+            return promoted;
+        }
+        recordMiss(key, entry);
+        return loadValue(key, entry, () -> loader.apply(key));
+    }
+
+    @Override
+    public Map<K, V> getAll(Iterable<K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        Map<K, CacheEntry<V>> missing = new LinkedHashMap<>();
+        long now = ticker.read();
+        for (K key : keys) {
+            if (key == null || result.containsKey(key) || missing.containsKey(key)) {
+                continue;
+            }
+            CacheEntry<V> entry = getEntry(key);
+            boolean live = entry != null && !entry.isExpired(now);
+            V value = live ? entry.getValue() : null;
+            while (live && value == null && entry.isReleased()) {
+                // A concurrent write freed the value while it was being read
+                entry = getEntry(key);
+                live = entry != null && !entry.isExpired(now);
+                value = live ? entry.getValue() : null;
+            }
+            if (live && (value != null || !entry.isCollected())) {
+                recordHit(key, entry, now);
+                result.put(key, value);
+            } else {
+                V promoted = promote(key);
+                if (promoted != null) {
+                    result.put(key, promoted);
+                    continue;
+                }
+                recordMiss(key, entry);
+                missing.put(key, entry);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+        if (config.getBulkLoader() != null) {
+            result.putAll(loadAll(missing.keySet()));
+        } else if (config.getLoader() != null || config.getAsyncLoader() != null) {
+            for (Map.Entry<K, CacheEntry<V>> e : missing.entrySet()) {
+                K key = e.getKey();
+                V value = loadValue(key, e.getValue(), () -> invokeLoader(key));
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
     }
 
     @Override
@@ -86,13 +303,48 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
             return;
         }
 
-        CacheEntry<V> entry = createEntry(value);
-        CacheEntry<V> oldEntry = entries.put(key, entry);
-        if (oldEntry != null) {
-            notifyListeners(listener -> listener.onRemove(key, oldEntry.getValue()));
+        if (putLatency == null || !sampleLatency()) {
+            store(key, value);
+            return;
         }
-        notifyListeners(listener -> listener.onPut(key, value));
-        evictionStrategy.update(key, entry);
+        long startTime = System.nanoTime();
+        store(key, value);
+        putLatency.record(System.nanoTime() - startTime);
+    }
+
+    private void store(K key, V value) {
+        store(key, value, 0L);
+    }
+
+    /**
+     * Stores a value, recording how long it took to load so that cost-aware
+     * eviction strategies can see it.
+     */
+    private void store(K key, V value, long loadNanos) {
+        CacheEntry<V> entry = createEntry(key, value);
+        entry.setLoadNanos(loadNanos);
+        Segment<V> segment = insert(key, value, entry);
+        performMaintenance(segment);
+        evictIfNeeded(segment);
+    }
+
+    @Override
+    public void putAll(Map<K, V> map) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        storeAll(map, 0L);
+    }
+
+    private void storeAll(Map<K, V> map, long loadNanos) {
+        for (Map.Entry<K, V> e : map.entrySet()) {
+            if (e.getKey() != null) {
+                CacheEntry<V> entry = createEntry(e.getKey(), e.getValue());
+                entry.setLoadNanos(loadNanos);
+                insert(e.getKey(), e.getValue(), entry);
+            }
+        }
+        performMaintenance();
         evictIfNeeded();
     }
 
@@ -102,24 +354,67 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
             return null;
         }
 
-        CacheEntry<V> entry = entries.remove(key);
-        if (entry != null) {
-            notifyListeners(listener -> listener.onRemove(key, entry.getValue()));
-            evictionStrategy.remove(key);
+        Object lookupKey = lookupKey(key);
+        loads.remove(lookupKey);
+        Segment<V> segment = segmentFor(lookupKey);
+        CacheEntry<V> entry = segment.entries.remove(lookupKey);
+        if (entry == null) {
+            DiskStore.Record<V> record = diskStore != null ? diskStore.remove(lookupKey) : null;
+            return record != null ? record.value : null;
+        }
+        if (diskStore != null) {
+            // An eviction racing with an earlier write may have left an older value on disk
+            diskStore.invalidate(lookupKey);
+        }
+        V value = entry.getValue();
+        segment.weightedSize.add(-entry.getWeight());
+        cancelExpiration(segment, lookupKey, entry);
+        events.remove(key, value);
+        segment.evictionStrategy.remove(mapKey(key, entry));
+        entry.release();
+        if (segment.timerWheel != null) {
+            performMaintenance(segment);
+        }
+        return value;
+    }
+
+    @Override
+    public void invalidateAll(Iterable<K> keys) {
+        for (K key : keys) {
+            remove(key);
         }
-        return entry != null ? entry.getValue() : null;
     }
 
     @Override
     public void clear() {
-        entries.clear();
-        evictionStrategy.clear();
-        notifyListeners(CacheEventListener::onClear);
+        loads.clear();
+        for (Segment<V> segment : segments) {
+            for (Object mapKey : segment.entries.keySet()) {
+                CacheEntry<V> entry = segment.entries.remove(mapKey);
+                if (entry != null) {
+                    segment.weightedSize.add(-entry.getWeight());
+                    cancelExpiration(segment, mapKey, entry);
+                    entry.release();
+                }
+            }
+            segment.evictionStrategy.clear();
+            if (segment.timerWheel != null) {
+                performMaintenance(segment);
+            }
+        }
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+        events.clear();
     }
 
     @Override
     public long size() {
-        return entries.size();
+        long size = 0L;
+        for (Segment<V> segment : segments) {
+            size += segment.entries.size();
+        }
+        return size;
     }
 
     @Override
@@ -127,28 +422,41 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
         if (key == null) {
             return false;
         }
-        return entries.containsKey(key);
+        Object lookupKey = lookupKey(key);
+        return segmentFor(lookupKey).entries.containsKey(lookupKey);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<K> keys() {
-        return entries.keySet();
+        if (!weakKeys && segments.length == 1) {
+            return (Set<K>) (Set<?>) segments[0].entries.keySet();
+        }
+        // Weak keys cannot be exposed as a live view without resurrecting them,
+        // and separate segments have no combined one
+        return mapEntries()
+                .map(e -> keyOf(e.getKey()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
     @Override
     public Collection<V> values() {
-        return entries.values().stream()
+        return mapEntries()
+                .map(Map.Entry::getValue)
+                .filter(entry -> !entry.isCollected())
                 .map(CacheEntry::getValue)
                 .collect(Collectors.toList());
     }
 
     @Override
     public Set<Map.Entry<K, V>> entries() {
-        return entries.entrySet().stream()
+        return mapEntries()
+                .filter(e -> !e.getValue().isCollected())
                 .map(e -> new Map.Entry<K, V>() {
                     @Override
                     public K getKey() {
-                        return e.getKey();
+                        return keyOf(e.getKey());
                     }
 
                     @Override
@@ -166,12 +474,304 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
 
     @Override
     public CacheStats stats() {
-        return stats.snapshot();
+        CacheStats snapshot = stats.snapshot();
+        if (loadLatency != null) {
+            snapshot = snapshot.withLatency(readLatency.snapshot(), putLatency.snapshot(), loadLatency.snapshot());
+        }
+        if (segments[0].evictionStrategy instanceof AdaptivePolicySelector) {
+            snapshot = withPolicySelection(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Attaches the state of adaptive policy selection, combined over the
+     * segments: switches are summed, shadow hit rates are averaged and the
+     * active policy is the one most segments use.
+     */
+    @SuppressWarnings("unchecked")
+    private CacheStats withPolicySelection(CacheStats snapshot) {
+        long switchCount = 0L;
+        Map<String, Double> hitRates = new LinkedHashMap<>();
+        Map<String, Integer> activePolicies = new HashMap<>();
+        for (Segment<V> segment : segments) {
+            AdaptivePolicySelector<Object, V> selector = (AdaptivePolicySelector<Object, V>) segment.evictionStrategy;
+            switchCount += selector.switchCount();
+            selector.shadowHitRates().forEach((policy, rate) -> hitRates.merge(policy, rate / segments.length, Double::sum));
+            activePolicies.merge(selector.activePolicy(), 1, Integer::sum);
+        }
+        String activePolicy = Collections.max(activePolicies.entrySet(), Map.Entry.comparingByValue()).getKey();
+        return snapshot.withPolicySelection(activePolicy, switchCount, hitRates);
+    }
+
+    /**
+     * Returns the histogram of sampled read latencies, or null if latency
+     * recording is disabled. Use {@link LatencyHistogram#intervalSnapshot()} for
+     * periodic reporting.
+     */
+    public LatencyHistogram readLatencyHistogram() {
+        return readLatency;
+    }
+
+    /**
+     * Returns the histogram of sampled write latencies, or null if latency
+     * recording is disabled.
+     */
+    public LatencyHistogram putLatencyHistogram() {
+        return putLatency;
+    }
+
+    /**
+     * Returns the histogram of load latencies, or null if latency recording is
+     * disabled.
+     */
+    public LatencyHistogram loadLatencyHistogram() {
+        return loadLatency;
+    }
+
+    /**
+     * Returns the number of events that were not delivered to listeners because
+     * the queue of the {@link CacheConfig.Builder#listenerExecutor listener
+     * executor} stayed full for too long. Always zero for synchronous listeners.
+     */
+    public long droppedEventCount() {
+        return events.droppedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Entries are written coldest first by their last access time. That time is
+     * only updated when buffered reads are replayed, and the read buffers drop
+     * reads under contention, so the order is approximate.
+     */
+    @Override
+    public void snapshot(Path path) {
+        if (config.getKeySerializer() == null || config.getValueSerializer() == null) {
+            throw new IllegalStateException("Snapshots require a key serializer and a value serializer");
+        }
+        performMaintenance();
+        List<Map.Entry<Object, CacheEntry<V>>> ordered = mapEntries().collect(Collectors.toList());
+        // Coldest first, so that restoring in sequence rebuilds the recency order
+        ordered.sort((a, b) -> Long.compare(a.getValue().getLastAccessNanos(), b.getValue().getLastAccessNanos()));
+
+        long now = ticker.read();
+        long nowMillis = System.currentTimeMillis();
+        try (CacheSnapshot.Writer<K, V> writer = new CacheSnapshot.Writer<>(path,
+                config.getKeySerializer(), config.getValueSerializer())) {
+            for (Map.Entry<Object, CacheEntry<V>> e : ordered) {
+                CacheEntry<V> entry = e.getValue();
+                K key = keyOf(e.getKey());
+                V value = entry.getValue();
+                if (key == null || value == null || entry.isExpired(now)) {
+                    continue;
+                }
+                long expiresAtMillis = entry.getExpirationNanos() == CacheEntry.NO_EXPIRATION
+                        ? CacheSnapshot.NO_EXPIRATION
+                        : nowMillis + TimeUnit.NANOSECONDS.toMillis(entry.getExpirationNanos() - now);
+                writer.write(key, value, expiresAtMillis);
+            }
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cache snapshot " + path, e);
+        }
+    }
+
+    /**
+     * Loads the entries of a snapshot written by {@link #snapshot(Path)} into
+     * this cache. Entries keep their original expiration deadlines, and those
+     * that expired in the meantime are skipped. If the snapshot holds more than
+     * this cache allows, the coldest entries are dropped. Restoring does not
+     * notify listeners, invoke loaders or record statistics.
+     *
+     * @param path the snapshot file to read
+     * @return the number of entries restored
+     * @throws IllegalStateException if the configuration has no key or value
+     *                               serializer
+     * @throws UncheckedIOException  if the snapshot cannot be read
+     */
+    public int restore(Path path) {
+        if (config.getKeySerializer() == null || config.getValueSerializer() == null) {
+            throw new IllegalStateException("Snapshots require a key serializer and a value serializer");
+        }
+        long now = ticker.read();
+        long nowMillis = System.currentTimeMillis();
+        int[] restored = new int[1];
+        CacheSnapshot.read(path, config.getKeySerializer(), config.getValueSerializer(), record -> {
+            long expirationNanos = CacheEntry.NO_EXPIRATION;
+            if (record.expiresAtMillis != CacheSnapshot.NO_EXPIRATION) {
+                long remainingMillis = record.expiresAtMillis - nowMillis;
+                if (remainingMillis <= 0L) {
+                    return;
+                }
+                expirationNanos = now + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+            }
+            install(record.key, createEntry(record.key, record.value, now, expirationNanos));
+            restored[0]++;
+        });
+        trimToCapacity();
+        return restored[0];
+    }
+
+    /**
+     * Stores an entry without notifying listeners, for restoring a snapshot.
+     */
+    private void install(K key, CacheEntry<V> entry) {
+        Object mapKey = mapKey(key, entry);
+        Segment<V> segment = segmentFor(mapKey);
+        CacheEntry<V> oldEntry = segment.entries.put(mapKey, entry);
+        segment.weightedSize.add(oldEntry != null ? entry.getWeight() - oldEntry.getWeight() : entry.getWeight());
+        if (oldEntry != null) {
+            cancelExpiration(segment, mapKey, oldEntry);
+            oldEntry.release();
+        }
+        scheduleExpiration(segment, mapKey, entry);
+        segment.evictionStrategy.update(mapKey, entry);
+    }
+
+    private Path automaticSnapshotPath() {
+        if (config.getDirectory() == null || config.getKeySerializer() == null
+                || config.getValueSerializer() == null) {
+            return null;
+        }
+        return Paths.get(config.getDirectory()).resolve(CacheSnapshot.FILE_NAME);
+    }
+
+    private void restoreAutomaticSnapshot() {
+        Path path = automaticSnapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            restore(path);
+        } catch (RuntimeException e) {
+            // An unreadable snapshot only costs a cold start
+        } finally {
+            try {
+                // Never restore the same snapshot twice, for instance after a crash
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Left in place; the next snapshot replaces it
+            }
+        }
     }
 
     @Override
     public CompletableFuture<V> getAsync(K key) {
-        return CompletableFuture.supplyAsync(() -> get(key));
+        if (config.getAsyncLoader() != null) {
+            return getAsync(key, config.getAsyncLoader());
+        }
+        if (config.getLoader() != null) {
+            return getAsync(key, k -> CompletableFuture.supplyAsync(() -> config.getLoader().apply(k)));
+        }
+        return CompletableFuture.completedFuture(get(key));
+    }
+
+    /**
+     * Returns a future for the value associated with the key, starting an
+     * asynchronous load if it is absent. A load already in flight for the key
+     * is returned as is, so callers never park a thread while a remote load is
+     * pending.
+     *
+     * @param key    the key whose associated value is to be returned
+     * @param loader the function used to start loading the value if it is absent
+     * @return a future that completes with the current or loaded value
+     */
+    CompletableFuture<V> getAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<V> inFlight = loads.get(lookupKey(key));
+        if (inFlight != null) {
+            stats.recordMiss();
+            stats.recordCoalescedLoad();
+            return inFlight;
+        }
+
+        CacheEntry<V> entry = getEntry(key);
+        long now = ticker.read();
+        while (entry != null && !entry.isExpired(now)) {
+            V value = entry.getValue();
+            if (value != null || (!entry.isCollected() && !entry.isReleased())) {
+                recordHit(key, entry, now);
+                return CompletableFuture.completedFuture(value);
+            }
+            if (!entry.isReleased()) {
+                break;
+            }
+            // A concurrent write freed the value while it was being read
+            entry = getEntry(key);
+        }
+
+        V promoted = promote(key);
+        if (promoted != null) {
+            return CompletableFuture.completedFuture(promoted);
+        }
+        recordMiss(key, entry);
+        return loadAsync(key, entry, loader);
+    }
+
+    /**
+     * Returns the in-flight load for the key, a completed future if the value is
+     * present, or null if neither exists. Never starts a load.
+     */
+    CompletableFuture<V> getIfPresentAsync(K key) {
+        if (key == null) {
+            return null;
+        }
+        CompletableFuture<V> inFlight = loads.get(lookupKey(key));
+        if (inFlight != null) {
+            return inFlight;
+        }
+        CacheEntry<V> entry = getEntry(key);
+        long now = ticker.read();
+        while (entry != null && !entry.isExpired(now)) {
+            V value = entry.getValue();
+            if (value != null || (!entry.isCollected() && !entry.isReleased())) {
+                recordHit(key, entry, now);
+                return CompletableFuture.completedFuture(value);
+            }
+            if (!entry.isReleased()) {
+                break;
+            }
+            // A concurrent write freed the value while it was being read
+            entry = getEntry(key);
+        }
+        V promoted = promote(key);
+        if (promoted != null) {
+            return CompletableFuture.completedFuture(promoted);
+        }
+        recordMiss(key, entry);
+        return null;
+    }
+
+    /**
+     * Associates a value that may still be computing with the key. Until the
+     * future completes it is visible to asynchronous lookups; once it completes
+     * successfully the value is stored, and if it fails the mapping is dropped.
+     */
+    void putAsync(K key, CompletableFuture<V> valueFuture) {
+        if (key == null || valueFuture == null) {
+            return;
+        }
+        Object lookupKey = lookupKey(key);
+        if (valueFuture.isDone() && !valueFuture.isCompletedExceptionally()) {
+            loads.remove(lookupKey);
+            V value = valueFuture.join();
+            if (value != null) {
+                put(key, value);
+            }
+            return;
+        }
+
+        loads.put(lookupKey, valueFuture);
+        valueFuture.whenComplete((value, error) -> {
+            if (error == null && value != null && loads.get(lookupKey) == valueFuture) {
+                put(key, value);
+            }
+            loads.remove(lookupKey, valueFuture);
+        });
     }
 
     @Override
@@ -194,93 +794,749 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
         return config;
     }
 
-    private CacheEntry<V> createEntry(V value) {
-        Instant now = Instant.now();
-        Instant expirationTime = null;
-        if (config.getExpireAfterWrite() != null) {
-            expirationTime = now.plus(config.getExpireAfterWrite());
-        } else if (config.getExpireAfterAccess() != null) {
-            expirationTime = now.plus(config.getExpireAfterAccess());
+    /**
+     * Stores a value and records the write with the eviction strategy, leaving
+     * eviction to the caller so that batched writes evict once per batch.
+     *
+     * @return the segment the value was stored in
+     */
+    private Segment<V> insert(K key, V value, CacheEntry<V> entry) {
+        Object mapKey = mapKey(key, entry);
+        Segment<V> segment = segmentFor(mapKey);
+        CacheEntry<V> oldEntry = segment.entries.put(mapKey, entry);
+        if (diskStore != null) {
+            // Invalidated after the value is visible, so that a concurrent spill either
+            // sees it and drops its own record or has already written the record dropped here
+            diskStore.invalidate(lookupKey(key));
         }
-        long weight = config.getWeigher() != null ? config.getWeigher().apply(null, value) : 1L;
-        return new CacheEntry<>(value, weight, expirationTime);
+        segment.weightedSize.add(oldEntry != null ? entry.getWeight() - oldEntry.getWeight() : entry.getWeight());
+        if (oldEntry != null) {
+            cancelExpiration(segment, mapKey, oldEntry);
+        }
+        scheduleExpiration(segment, mapKey, entry);
+        if (oldEntry != null) {
+            if (events.isEnabled()) {
+                events.remove(key, oldEntry.getValue());
+            }
+            oldEntry.release();
+        }
+        events.put(key, value);
+        segment.evictionStrategy.update(mapKey, entry);
+        return segment;
     }
 
-    private V loadValue(K key) {
-        long startTime = System.nanoTime();
+    /**
+     * Stores an entry unless the key is already present in memory, for values
+     * that must not overwrite a concurrent write.
+     *
+     * @return the segment the entry was stored in, or null if the key is present
+     */
+    private Segment<V> insertIfAbsent(K key, V value, CacheEntry<V> entry) {
+        Object mapKey = mapKey(key, entry);
+        Segment<V> segment = segmentFor(mapKey);
+        if (segment.entries.putIfAbsent(mapKey, entry) != null) {
+            entry.release();
+            return null;
+        }
+        segment.weightedSize.add(entry.getWeight());
+        scheduleExpiration(segment, mapKey, entry);
+        events.put(key, value);
+        segment.evictionStrategy.update(mapKey, entry);
+        return segment;
+    }
+
+    private CacheEntry<V> createEntry(K key, V value) {
+        long now = ticker.read();
+        long expirationNanos = CacheEntry.NO_EXPIRATION;
+        if (expireAfterWriteNanos > 0L) {
+            expirationNanos = now + expireAfterWriteNanos;
+        }
+        if (expireAfterAccessNanos > 0L) {
+            expirationNanos = Math.min(expirationNanos, now + expireAfterAccessNanos);
+        }
+        return createEntry(key, value, now, expirationNanos);
+    }
+
+    private CacheEntry<V> createEntry(K key, V value, long now, long expirationNanos) {
+        if (offHeapStore == null) {
+            long weight = config.getWeigher() != null ? config.getWeigher().apply(key, value) : 1L;
+            return referenceQueue != null
+                    ? createReferenceEntry(key, value, weight, now, expirationNanos)
+                    : new CacheEntry<>(value, weight, now, expirationNanos);
+        }
+        OffHeapStore.Handle handle = value != null ? offHeapStore.store(value) : null;
+        long weight = config.getWeigher() != null ? config.getWeigher().apply(key, value)
+                : handle != null ? Math.max(1L, handle.length) : 1L;
+        return new OffHeapEntry<>(offHeapStore, handle, weight, now, expirationNanos);
+    }
+
+    private CacheEntry<V> createReferenceEntry(K key, V value, long weight, long now, long expirationNanos) {
+        Object keyReference = null;
+        if (weakKeys) {
+            // Reuse the weak key already in the map so that the map, the eviction
+            // strategy and the timer wheel all hold the one that gets enqueued
+            CacheEntry<V> existing = getEntry(key);
+            keyReference = existing != null
+                    ? existing.keyReference()
+                    : new ReferenceEntry.WeakKey<>(key, referenceQueue);
+        }
+        Object mapKey = keyReference != null ? keyReference : key;
+        Reference<V> valueReference = null;
+        if (value != null && config.isWeakValues()) {
+            valueReference = new ReferenceEntry.WeakValue<>(value, mapKey, referenceQueue);
+        } else if (value != null && config.isSoftValues()) {
+            valueReference = new ReferenceEntry.SoftValue<>(value, mapKey, referenceQueue);
+        }
+        return new ReferenceEntry<>(keyReference, valueReference, value, weight, now, expirationNanos);
+    }
+
+    private CacheEntry<V> getEntry(K key) {
+        Object lookupKey = lookupKey(key);
+        return segmentFor(lookupKey).entries.get(lookupKey);
+    }
+
+    private Object lookupKey(K key) {
+        return weakKeys ? new ReferenceEntry.LookupKey<>(key) : key;
+    }
+
+    private Object mapKey(K key, CacheEntry<V> entry) {
+        Object keyReference = entry.keyReference();
+        return keyReference != null ? keyReference : key;
+    }
+
+    private Segment<V> segmentFor(Object mapKey) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        // The map of each segment indexes by the low bits, so select by the high ones
+        return segments[(mapKey.hashCode() * 0x9e3779b9) >>> segmentShift];
+    }
+
+    private Stream<Map.Entry<Object, CacheEntry<V>>> mapEntries() {
+        return segments.length == 1
+                ? segments[0].entries.entrySet().stream()
+                : Arrays.stream(segments).flatMap(segment -> segment.entries.entrySet().stream());
+    }
+
+    /**
+     * Returns the key for a map key, or null if a weak key has been reclaimed.
+     */
+    @SuppressWarnings("unchecked")
+    private K keyOf(Object mapKey) {
+        return weakKeys ? ((ReferenceEntry.KeyReference<K>) mapKey).get() : (K) mapKey;
+    }
+
+    /**
+     * Moves the value for a key from the disk tier back into memory, keeping
+     * its original expiration deadline. If the key is written while the value
+     * is being read from disk, the promoted value is dropped.
+     *
+     * @return the value, or null if the disk tier does not hold a live one or
+     *         it was superseded
+     */
+    private V promote(K key) {
+        if (diskStore == null) {
+            return null;
+        }
+        DiskStore.Record<V> record = diskStore.remove(lookupKey(key));
+        if (record == null) {
+            return null;
+        }
+        long now = ticker.read();
+        long expirationNanos = CacheEntry.NO_EXPIRATION;
+        if (record.expiresAtMillis != Long.MAX_VALUE) {
+            long remainingMillis = record.expiresAtMillis - System.currentTimeMillis();
+            if (remainingMillis <= 0L) {
+                return null;
+            }
+            expirationNanos = now + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+        Segment<V> segment = insertIfAbsent(key, record.value, createEntry(key, record.value, now, expirationNanos));
+        if (segment == null) {
+            // The key was written after it was found missing; the newer value wins
+            return null;
+        }
+        performMaintenance(segment);
+        evictIfNeeded(segment);
+        stats.recordHit();
+        return record.value;
+    }
+
+    /**
+     * Writes an evicted value to the disk tier with its remaining lifetime
+     * converted to a wall-clock deadline. If the key is written again while the
+     * value is being spilled, the spilled record is dropped.
+     */
+    private void spill(Segment<V> segment, K key, V value, CacheEntry<V> entry) {
+        long expiresAtMillis = Long.MAX_VALUE;
+        if (entry.getExpirationNanos() != CacheEntry.NO_EXPIRATION) {
+            long remainingNanos = entry.getExpirationNanos() - ticker.read();
+            if (remainingNanos <= 0L) {
+                return;
+            }
+            expiresAtMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(remainingNanos);
+        }
+        Object lookupKey = lookupKey(key);
+        if (diskStore.put(lookupKey, value, expiresAtMillis) && segment.entries.containsKey(lookupKey)) {
+            diskStore.invalidate(lookupKey);
+        }
+    }
+
+    private void recordHit(K key, CacheEntry<V> entry, long now) {
+        if (expireAfterAccessNanos > 0L) {
+            slideExpiration(entry, now);
+        }
+        Object mapKey = mapKey(key, entry);
+        Segment<V> segment = segmentFor(mapKey);
+        if (segment.readBuffer.offer(mapKey, entry)) {
+            performMaintenance(segment);
+        }
+        stats.recordHit();
+        if (refreshAfterWriteNanos > 0L && now - entry.getCreationNanos() > refreshAfterWriteNanos) {
+            refresh(key, entry);
+        }
+    }
+
+    /**
+     * Reloads the value of an entry past its refresh deadline in the
+     * background, while readers keep getting the current value. At most one
+     * reload runs per key; reads arriving meanwhile find it registered and
+     * return. The result is discarded if the entry was replaced or removed
+     * while reloading.
+     */
+    private void refresh(K key, CacheEntry<V> stale) {
+        Object lookupKey = lookupKey(key);
+        if (refreshes.putIfAbsent(lookupKey, stale) != null) {
+            return;
+        }
+        V oldValue = stale.getValue();
         try {
-            V value;
-            if (config.getAsyncLoader() != null) {
-                value = config.getAsyncLoader().apply(key).get();
-            } else if (config.getLoader() != null) {
-                value = config.getLoader().apply(key);
+            refreshExecutor.execute(() -> {
+                try {
+                    long startTime = System.nanoTime();
+                    V value = reload(key, oldValue);
+                    if (value != null && getEntry(key) == stale) {
+                        onLoadSuccess(key, value, System.nanoTime() - startTime);
+                    }
+                } catch (Exception e) {
+                    onLoadFailure(key, e);
+                } finally {
+                    refreshes.remove(lookupKey, stale);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshes.remove(lookupKey, stale);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V reload(K key, V oldValue) throws Exception {
+        if (config.getLoader() instanceof CacheLoader) {
+            return ((CacheLoader<K, V>) config.getLoader()).reload(key, oldValue);
+        }
+        return invokeLoader(key);
+    }
+
+    /**
+     * Extends the deadline of an entry that expires after access. This is a
+     * single volatile write of a primitive; the timer wheel notices the later
+     * deadline when the old timer fires and reschedules it.
+     */
+    private void slideExpiration(CacheEntry<V> entry, long now) {
+        long deadline = now + expireAfterAccessNanos;
+        if (expireAfterWriteNanos > 0L) {
+            long writeDeadline = entry.getCreationNanos() + expireAfterWriteNanos;
+            if (deadline - writeDeadline > 0L) {
+                deadline = writeDeadline;
+            }
+        }
+        entry.setExpirationNanos(deadline);
+    }
+
+    private void recordMiss(K key, CacheEntry<V> expired) {
+        Object mapKey = expired != null ? mapKey(key, expired) : null;
+        Segment<V> segment = expired != null ? segmentFor(mapKey) : null;
+        if (expired != null && segment.entries.remove(mapKey, expired)) {
+            segment.weightedSize.add(-expired.getWeight());
+            cancelExpiration(segment, mapKey, expired);
+            segment.evictionStrategy.remove(mapKey);
+            V value = expired.getValue();
+            if (expired.isCollected()) {
+                // Listeners are not told about an entry whose key or value is gone
+                stats.recordEviction();
             } else {
-                value = null;
+                events.remove(key, value);
             }
+            expired.release();
+        }
+        if (!weakKeys) {
+            // Weak keys are tracked by reference, which a lookup cannot name
+            segmentFor(key).evictionStrategy.miss(key);
+        }
+        stats.recordMiss();
+    }
 
-            if (value != null) {
-                put(key, value);
-                stats.recordLoad(System.nanoTime() - startTime);
-                notifyListeners(listener -> listener.onLoad(key, value));
-                return value;
+    private V invokeLoader(K key) throws Exception {
+        if (config.getAsyncLoader() != null) {
+            return config.getAsyncLoader().apply(key).get();
+        } else if (config.getLoader() != null) {
+            return config.getLoader().apply(key);
+        }
+        return null;
+    }
+
+    /**
+     * Loads the value for a key so that concurrent callers share a single
+     * loader invocation. The first caller installs an in-flight future for the
+     * key and runs the loader; every other caller arriving before it completes
+     * waits on that future and is counted as a coalesced load.
+     *
+     * @param key    the key to load
+     * @param stale  the entry observed before loading, or null if none
+     * @param loader the loader to invoke
+     * @return the loaded value, or null if the loader failed or returned null
+     */
+    private V loadValue(K key, CacheEntry<V> stale, Callable<V> loader) {
+        Object lookupKey = lookupKey(key);
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loads.putIfAbsent(lookupKey, loading);
+        if (inFlight != null) {
+            stats.recordCoalescedLoad();
+            try {
+                return inFlight.join();
+            } catch (CompletionException | CancellationException e) {
+                return null;
+            }
+        }
+
+        try {
+            // Another caller may have finished loading between our miss and claiming the key
+            CacheEntry<V> current = getEntry(key);
+            if (current != null && current != stale && !current.isExpired(ticker.read())
+                    && !current.isCollected()) {
+                V value = current.getValue();
+                if (value != null || !current.isReleased()) {
+                    loading.complete(value);
+                    return value;
+                }
+            }
+
+            long startTime = System.nanoTime();
+            V value = loader.call();
+            if (value == null) {
+                stats.recordLoadFailure();
+            } else if (loads.get(lookupKey) == loading) {
+                // A removal or invalidation during the load drops it from the in-flight map
+                onLoadSuccess(key, value, System.nanoTime() - startTime);
             }
+            loading.complete(value);
+            return value;
         } catch (Exception e) {
-            stats.recordLoadFailure();
-            notifyListeners(listener -> listener.onLoadError(key, e));
+            onLoadFailure(key, e);
+            loading.completeExceptionally(e);
+            return null;
+        } finally {
+            loads.remove(lookupKey, loading);
+            // Release waiters even if the loader threw an Error
+            loading.complete(null);
         }
-        return null;
     }
 
-    private void evictIfNeeded() {
-        if (config.getMaximumSize() != null && entries.size() > config.getMaximumSize()) {
-            evict(EvictionReason.SIZE);
+    /**
+     * Starts loading the value for a key without blocking. The returned future is
+     * registered as the key's in-flight load until it completes; a successful
+     * result is stored in the cache and a failed one is simply forgotten, so the
+     * next lookup retries.
+     */
+    private CompletableFuture<V> loadAsync(K key, CacheEntry<V> stale, Function<K, CompletableFuture<V>> loader) {
+        Object lookupKey = lookupKey(key);
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loads.putIfAbsent(lookupKey, loading);
+        if (inFlight != null) {
+            stats.recordCoalescedLoad();
+            return inFlight;
+        }
+
+        CacheEntry<V> current = getEntry(key);
+        if (current != null && current != stale && !current.isExpired(ticker.read())
+                && !current.isCollected()) {
+            V value = current.getValue();
+            if (value != null || !current.isReleased()) {
+                loads.remove(lookupKey, loading);
+                loading.complete(value);
+                return loading;
+            }
+        }
+
+        long startTime = System.nanoTime();
+        CompletableFuture<V> source;
+        try {
+            source = loader.apply(key);
+            if (source == null) {
+                throw new NullPointerException("Async loader returned a null future");
+            }
+        } catch (Exception e) {
+            onLoadFailure(key, e);
+            loads.remove(lookupKey, loading);
+            loading.completeExceptionally(e);
+            return loading;
+        }
+
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                onLoadFailure(key, error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else if (value == null) {
+                stats.recordLoadFailure();
+            } else if (loads.get(lookupKey) == loading) {
+                onLoadSuccess(key, value, System.nanoTime() - startTime);
+            }
+            loads.remove(lookupKey, loading);
+            if (error != null) {
+                loading.completeExceptionally(error);
+            } else {
+                loading.complete(value);
+            }
+        });
+        return loading;
+    }
+
+    /**
+     * Loads the given absent keys with a single bulk loader call. Keys that
+     * already have a load in flight are not requested again; their in-flight
+     * results are awaited instead. The loaded values are stored as one batch.
+     */
+    private Map<K, V> loadAll(Set<K> keys) {
+        Map<K, CompletableFuture<V>> claimed = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new LinkedHashMap<>();
+        for (K key : keys) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = loads.putIfAbsent(lookupKey(key), loading);
+            if (inFlight != null) {
+                stats.recordCoalescedLoad();
+                waiting.put(key, inFlight);
+            } else {
+                claimed.put(key, loading);
+            }
+        }
+
+        Map<K, V> result = new LinkedHashMap<>();
+        if (!claimed.isEmpty()) {
+            try {
+                long startTime = System.nanoTime();
+                Map<K, V> loaded = config.getBulkLoader().apply(new LinkedHashSet<>(claimed.keySet()));
+                Map<K, V> values = new LinkedHashMap<>();
+                for (K key : claimed.keySet()) {
+                    V value = loaded != null ? loaded.get(key) : null;
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                }
+                long loadTime = System.nanoTime() - startTime;
+                if (!values.isEmpty()) {
+                    // Share the cost of the bulk load between the values it produced
+                    storeAll(values, loadTime / values.size());
+                }
+                recordLoad(loadTime);
+                for (Map.Entry<K, V> e : values.entrySet()) {
+                    events.load(e.getKey(), e.getValue());
+                }
+                result.putAll(values);
+                claimed.forEach((key, loading) -> loading.complete(values.get(key)));
+            } catch (Exception e) {
+                stats.recordLoadFailure();
+                claimed.forEach((key, loading) -> {
+                    events.loadError(key, e);
+                    loading.completeExceptionally(e);
+                });
+            } finally {
+                claimed.forEach((key, loading) -> {
+                    loads.remove(lookupKey(key), loading);
+                    // Release waiters even if the loader threw an Error
+                    loading.complete(null);
+                });
+            }
         }
 
-        if (config.getMaximumWeight() != null) {
-            long totalWeight = entries.values().stream()
-                    .mapToLong(CacheEntry::getWeight)
-                    .sum();
-            if (totalWeight > config.getMaximumWeight()) {
-                evict(EvictionReason.WEIGHT);
+        waiting.forEach((key, inFlight) -> {
+            try {
+                V value = inFlight.join();
+                if (value != null) {
+                    result.put(key, value);
+                }
+            } catch (CompletionException | CancellationException e) {
+                // The concurrent load failed and has already been reported
             }
+        });
+        return result;
+    }
+
+    private void onLoadSuccess(K key, V value, long loadTime) {
+        store(key, value, loadTime);
+        recordLoad(loadTime);
+        events.load(key, value);
+    }
+
+    private void recordLoad(long loadTime) {
+        stats.recordLoad(loadTime);
+        if (loadLatency != null) {
+            loadLatency.record(loadTime);
+        }
+    }
+
+    private boolean sampleLatency() {
+        return latencySampleInterval == 1 || ThreadLocalRandom.current().nextInt(latencySampleInterval) == 0;
+    }
+
+    private void onLoadFailure(K key, Throwable error) {
+        stats.recordLoadFailure();
+        events.loadError(key, error);
+    }
+
+    /**
+     * Applies buffered timer changes and reads, expires entries whose timers are
+     * due and removes entries reclaimed by the garbage collector. Writes and
+     * reads are recorded without touching the timer wheel or shared policy
+     * state and replayed here in batches by whichever thread next performs
+     * maintenance. If another thread is already performing maintenance, this
+     * call returns immediately.
+     */
+    private void performMaintenance() {
+        for (Segment<V> segment : segments) {
+            performMaintenance(segment);
         }
     }
 
-    private void evict(EvictionReason reason) {
-        K candidate = (K) evictionStrategy.selectEvictionCandidate(entries);
-        if (candidate != null) {
-            CacheEntry<V> entry = entries.remove(candidate);
-            if (entry != null) {
-                evictionStrategy.remove(candidate);
+    /**
+     * Performs maintenance on a single segment. Listeners are told about expired
+     * entries after the segment's lock is released. The reference queue is
+     * shared by all segments and drained after the lock is released too, as
+     * reclaimed entries may belong to any of them.
+     */
+    private void performMaintenance(Segment<V> segment) {
+        List<Map.Entry<K, V>> expired = null;
+        if (segment.maintenanceLock.tryLock()) {
+            try {
+                long now = ticker.read();
+                if (segment.timerWheel != null) {
+                    drainTimerBuffer(segment);
+                }
+                segment.readBuffer.drainTo((key, entry) -> onAccess(segment, key, entry, now));
+                if (segment.timerWheel != null) {
+                    segment.timerWheel.advance(now, (key, entry) -> onExpired(segment, key, entry, now));
+                    expired = segment.takeExpired();
+                }
+            } finally {
+                segment.maintenanceLock.unlock();
+            }
+        }
+        if (expired != null) {
+            for (Map.Entry<K, V> e : expired) {
+                events.expire(e.getKey(), e.getValue());
+            }
+        }
+        if (referenceQueue != null) {
+            drainReferenceQueue();
+        }
+    }
+
+    private void onAccess(Segment<V> segment, Object mapKey, CacheEntry<V> entry, long now) {
+        // Skip reads of entries that were replaced or removed since they were buffered
+        if (segment.entries.get(mapKey) == entry) {
+            entry.incrementAccessCount(now);
+            segment.evictionStrategy.access(mapKey, entry);
+        }
+    }
+
+    /**
+     * Removes the entries whose keys or values have been reclaimed. A cleared
+     * weak key is itself the map key of its entry; a cleared value reference
+     * carries it. The removals count as evictions but are not reported to
+     * listeners.
+     */
+    private void drainReferenceQueue() {
+        Reference<?> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            Object mapKey = reference instanceof ReferenceEntry.ValueReference
+                    ? ((ReferenceEntry.ValueReference) reference).mapKey()
+                    : reference;
+            Segment<V> segment = segmentFor(mapKey);
+            CacheEntry<V> entry = segment.entries.get(mapKey);
+            // The entry may have been replaced by a live one since the reference was cleared
+            if (entry != null && entry.isCollected() && segment.entries.remove(mapKey, entry)) {
+                segment.weightedSize.add(-entry.getWeight());
+                cancelExpiration(segment, mapKey, entry);
+                segment.evictionStrategy.remove(mapKey);
                 stats.recordEviction();
-                notifyListeners(listener -> listener.onEvict(candidate, entry.getValue(), reason));
             }
         }
     }
 
-    private void scheduleRefresh() {
-        scheduler.scheduleAtFixedRate(() -> {
-            Instant now = Instant.now();
-            entries.forEach((key, entry) -> {
-                if (entry.isExpired()) {
-                    remove(key);
-                    notifyListeners(listener -> listener.onExpire(key, entry.getValue()));
-                } else if (config.getRefreshAfterWrite() != null &&
-                        entry.getCreationTime().plus(config.getRefreshAfterWrite()).isBefore(now)) {
-                    CompletableFuture.runAsync(() -> loadValue(key));
+    /**
+     * Requests a timer for an entry that was just stored. Like the cancellation
+     * of timers, this is buffered and applied during maintenance, so writers
+     * never wait for the segment's maintenance lock.
+     */
+    private void scheduleExpiration(Segment<V> segment, Object mapKey, CacheEntry<V> entry) {
+        if (segment.timerWheel != null && entry.getExpirationNanos() != CacheEntry.NO_EXPIRATION) {
+            segment.timerBuffer.add(new AbstractMap.SimpleImmutableEntry<>(mapKey, entry));
+        }
+    }
+
+    /**
+     * Requests that the timer of an entry that has just left the cache be
+     * cancelled.
+     */
+    private void cancelExpiration(Segment<V> segment, Object mapKey, CacheEntry<V> entry) {
+        scheduleExpiration(segment, mapKey, entry);
+    }
+
+    /**
+     * Applies the buffered timer requests in order. A request only names an
+     * entry whose presence changed; the entry gets a timer if it is still in the
+     * map and loses its timer if it is not, so requests for entries that were
+     * replaced before being drained cost nothing.
+     */
+    @SuppressWarnings("unchecked")
+    private void drainTimerBuffer(Segment<V> segment) {
+        Map.Entry<Object, CacheEntry<V>> request;
+        while ((request = segment.timerBuffer.poll()) != null) {
+            Object mapKey = request.getKey();
+            CacheEntry<V> entry = request.getValue();
+            TimerWheel.Node<Object, V> node = (TimerWheel.Node<Object, V>) entry.timerNode;
+            if (segment.entries.get(mapKey) == entry) {
+                if (node == null) {
+                    entry.timerNode = segment.timerWheel.schedule(mapKey, entry, entry.getExpirationNanos());
                 }
-            });
-        }, 0, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            } else if (node != null) {
+                segment.timerWheel.cancel(node);
+                entry.timerNode = null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onExpired(Segment<V> segment, Object mapKey, CacheEntry<V> entry, long now) {
+        if (!entry.isExpired(now)) {
+            // The deadline slid forward on access since the timer was scheduled
+            segment.timerWheel.reschedule((TimerWheel.Node<Object, V>) entry.timerNode, entry.getExpirationNanos());
+            return;
+        }
+        entry.timerNode = null;
+        if (segment.entries.remove(mapKey, entry)) {
+            segment.weightedSize.add(-entry.getWeight());
+            segment.evictionStrategy.remove(mapKey);
+            if (events.isEnabled()) {
+                // Delivered once the maintenance lock is released
+                segment.expired.add(new AbstractMap.SimpleImmutableEntry<>(keyOf(mapKey), entry.getValue()));
+            }
+            entry.release();
+        }
+    }
+
+    private void evictIfNeeded() {
+        for (Segment<V> segment : segments) {
+            evictIfNeeded(segment);
+        }
     }
 
-    private void notifyListeners(java.util.function.Consumer<CacheEventListener<K, V>> action) {
-        config.getListeners().forEach(action);
+    private void evictIfNeeded(Segment<V> segment) {
+        if (segment.maximumSize != null) {
+            while (segment.entries.size() > segment.maximumSize && evict(segment, EvictionReason.SIZE)) {
+                // Batched writes may overflow by more than one entry
+            }
+        }
+
+        if (segment.maximumWeight != null) {
+            while (segment.weightedSize.sum() > segment.maximumWeight && evict(segment, EvictionReason.WEIGHT)) {
+                // A single heavy entry may require several evictions
+            }
+        }
+    }
+
+    /**
+     * Drops entries beyond the size and weight limits in eviction order without
+     * notifying listeners, recording statistics or spilling them to disk.
+     */
+    private void trimToCapacity() {
+        for (Segment<V> segment : segments) {
+            if (segment.maximumSize != null) {
+                while (segment.entries.size() > segment.maximumSize && discard(segment)) {
+                    // A snapshot may hold more entries than this cache allows
+                }
+            }
+            if (segment.maximumWeight != null) {
+                while (segment.weightedSize.sum() > segment.maximumWeight && discard(segment)) {
+                    // Weights may have changed since the snapshot was taken
+                }
+            }
+        }
+    }
+
+    private boolean discard(Segment<V> segment) {
+        Object candidate = segment.evictionStrategy.selectEvictionCandidate();
+        if (candidate == null) {
+            return false;
+        }
+        CacheEntry<V> entry = segment.entries.remove(candidate);
+        segment.evictionStrategy.remove(candidate);
+        if (entry != null) {
+            segment.weightedSize.add(-entry.getWeight());
+            cancelExpiration(segment, candidate, entry);
+            entry.release();
+        }
+        return true;
+    }
+
+    private boolean evict(Segment<V> segment, EvictionReason reason) {
+        Object candidate = segment.evictionStrategy.selectEvictionCandidate();
+        if (candidate == null) {
+            return false;
+        }
+        CacheEntry<V> entry = segment.entries.remove(candidate);
+        segment.evictionStrategy.remove(candidate);
+        if (entry != null) {
+            K key = keyOf(candidate);
+            V value = entry.getValue();
+            segment.weightedSize.add(-entry.getWeight());
+            cancelExpiration(segment, candidate, entry);
+            stats.recordEviction();
+            events.evict(key, value, reason);
+            if (diskStore != null && key != null && value != null) {
+                spill(segment, key, value, entry);
+            }
+            entry.release();
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int count) {
+        return (Segment<V>[]) new Segment<?>[count];
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Divides a total between segments, rounding up so that no segment gets a
+     * share of zero.
+     */
+    private static int divide(int total, int parts) {
+        return (int) divide((long) total, parts);
+    }
+
+    private static long divide(long total, int parts) {
+        return total / parts + (total % parts == 0 ? 0 : 1);
     }
 
     /**
      * Closes this cache and releases any resources associated with it.
      * This method should be called when the cache is no longer needed
-     * to prevent resource leaks.
+     * to prevent resource leaks. If the configuration has a directory and key
+     * and value serializers, the contents of the cache are snapshotted there
+     * first.
      */
     @Override
     public void close() {
@@ -293,5 +1549,64 @@ public class DefaultCache<K, V> implements Cache<K, V>, AutoCloseable {
             scheduler.shutdownNow();
             Thread.currentThread().interrupt();
         }
+        try {
+            Path path = automaticSnapshotPath();
+            if (path != null) {
+                snapshot(path);
+            }
+        } finally {
+            if (diskStore != null) {
+                diskStore.close();
+            }
+        }
+    }
+
+    /**
+     * A partition of the cache with its own map, eviction order, weight and
+     * maintenance. An unsegmented cache has exactly one. Map keys are the keys
+     * themselves, or a {@link ReferenceEntry.WeakKey} when keys are held
+     * weakly; the eviction strategy, read buffer and timer wheel track entries
+     * by the same map key.
+     *
+     * @param <V> the type of mapped values
+     */
+    private static final class Segment<V> {
+        final ConcurrentHashMap<Object, CacheEntry<V>> entries;
+        final LongAdder weightedSize = new LongAdder();
+        final EvictionStrategy<Object, V> evictionStrategy;
+        final ReadBuffer<Object, CacheEntry<V>> readBuffer = new ReadBuffer<>();
+        final ConcurrentLinkedQueue<Map.Entry<Object, CacheEntry<V>>> timerBuffer = new ConcurrentLinkedQueue<>();
+        final ReentrantLock maintenanceLock = new ReentrantLock();
+        final TimerWheel<Object, V> timerWheel;
+        /**
+         * The keys and values of entries expired under the maintenance lock,
+         * awaiting delivery to listeners.
+         */
+        List<Map.Entry<?, V>> expired = new ArrayList<>();
+        final Long maximumSize;
+        final Long maximumWeight;
+
+        Segment(ConcurrentHashMap<Object, CacheEntry<V>> entries, EvictionStrategy<Object, V> evictionStrategy,
+                TimerWheel<Object, V> timerWheel, Long maximumSize, Long maximumWeight) {
+            this.entries = entries;
+            this.evictionStrategy = evictionStrategy;
+            this.timerWheel = timerWheel;
+            this.maximumSize = maximumSize;
+            this.maximumWeight = maximumWeight;
+        }
+
+        /**
+         * Hands over the entries expired so far, or returns null if there are
+         * none. Called under the maintenance lock.
+         */
+        @SuppressWarnings("unchecked")
+        <K> List<Map.Entry<K, V>> takeExpired() {
+            if (expired.isEmpty()) {
+                return null;
+            }
+            List<Map.Entry<?, V>> taken = expired;
+            expired = new ArrayList<>();
+            return (List<Map.Entry<K, V>>) (List<?>) taken;
+        }
     }
 }
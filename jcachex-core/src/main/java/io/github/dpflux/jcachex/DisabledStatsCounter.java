@@ -0,0 +1,39 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * A {@link StatsCounter} that discards everything it is given.
+ */
+enum DisabledStatsCounter implements StatsCounter {
+    INSTANCE;
+
+    private static final CacheStats EMPTY = CacheStats.of(0L, 0L, 0L, 0L, 0L, 0L, 0L);
+
+    @Override
+    public void recordHit() {
+    }
+
+    @Override
+    public void recordMiss() {
+    }
+
+    @Override
+    public void recordEviction() {
+    }
+
+    @Override
+    public void recordLoad(long loadTime) {
+    }
+
+    @Override
+    public void recordLoadFailure() {
+    }
+
+    @Override
+    public void recordCoalescedLoad() {
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return EMPTY;
+    }
+}
@@ -0,0 +1,340 @@
+package io.github.dpflux.jcachex;
+
+import io.github.dpflux.jcachex.serialization.Serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A second cache tier that keeps values evicted from memory in memory-mapped
+ * files.
+ * <p>
+ * Values are appended to fixed-size segment files in the cache's directory,
+ * each mapped into memory in full, and located through an in-memory index of
+ * keys. A segment is only ever appended to; removing or replacing a value
+ * merely marks its bytes as dead. Background compaction copies the live values
+ * of mostly dead segments into the active segment and deletes their files.
+ * When the segments exceed the configured maximum size, the oldest segment is
+ * dropped whole.
+ * <p>
+ * The tier is a spill-over area for the lifetime of one cache, not a persistent
+ * store. Records hold only the value and its deadline, so the index cannot be
+ * rebuilt from the files; segment files left over from a previous run are
+ * deleted when the store is opened, and all segments are deleted when it is
+ * closed.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+final class DiskStore<K, V> implements AutoCloseable {
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".dat";
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final double COMPACTION_THRESHOLD = 0.5;
+
+    private final Path directory;
+    private final Serializer<V> serializer;
+    private final int segmentSize;
+    private final long maximumSize;
+    private final Map<K, Location> index;
+    private final Deque<Segment> segments;
+    private final ReentrantLock lock;
+    private Segment active;
+    private int nextSegmentId;
+
+    /**
+     * A value read back from disk together with its wall-clock deadline.
+     *
+     * @param <V> the type of the value
+     */
+    static final class Record<V> {
+        final V value;
+        final long expiresAtMillis;
+
+        Record(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+        long liveBytes;
+
+        Segment(Path path, int size) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        final int offset;
+        final int size;
+
+        Location(Segment segment, int offset, int size) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+
+    DiskStore(Path directory, Serializer<V> serializer, int segmentSize, long maximumSize) {
+        this.directory = directory;
+        this.serializer = serializer;
+        this.segmentSize = segmentSize;
+        this.maximumSize = maximumSize;
+        this.index = new ConcurrentHashMap<>();
+        this.segments = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        try {
+            Files.createDirectories(directory);
+            deleteSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open disk tier in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns true if the store holds a value for the key. Does not lock.
+     */
+    boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Writes a value to the active segment, replacing any previous value for
+     * the key. Values that do not fit in a segment are not stored.
+     *
+     * @param expiresAtMillis the wall-clock time the value expires, or
+     *                        {@link Long#MAX_VALUE} if it does not
+     * @return true if the value was stored
+     */
+    boolean put(K key, V value, long expiresAtMillis) {
+        byte[] data = serializer.serialize(value);
+        int size = HEADER_SIZE + data.length;
+        if (size > segmentSize) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Location location = append(data, expiresAtMillis);
+            unlink(index.put(key, location));
+            trimToMaximumSize();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the value for the key and returns it, or returns null if the
+     * store does not hold one.
+     */
+    Record<V> remove(K key) {
+        if (!index.containsKey(key)) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Location location = index.remove(key);
+            if (location == null) {
+                return null;
+            }
+            unlink(location);
+            ByteBuffer view = location.segment.buffer.duplicate();
+            view.position(location.offset);
+            byte[] data = new byte[view.getInt()];
+            long expiresAtMillis = view.getLong();
+            view.get(data);
+            return new Record<>(serializer.deserialize(data), expiresAtMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the value for the key without reading it.
+     */
+    void invalidate(K key) {
+        if (!index.containsKey(key)) {
+            return;
+        }
+        lock.lock();
+        try {
+            unlink(index.remove(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every value.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            index.clear();
+            while (!segments.isEmpty()) {
+                delete(segments.pollFirst());
+            }
+            active = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of values held by the store.
+     */
+    long size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of segment files.
+     */
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the live values of segments that are mostly dead into the active
+     * segment and deletes their files.
+     */
+    void compact() {
+        lock.lock();
+        try {
+            Set<Segment> candidates = new HashSet<>();
+            for (Segment segment : segments) {
+                if (segment != active && segment.liveBytes < segment.position * COMPACTION_THRESHOLD) {
+                    candidates.add(segment);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<K, Location> e : index.entrySet()) {
+                Location location = e.getValue();
+                if (candidates.contains(location.segment)) {
+                    byte[] record = new byte[location.size];
+                    ByteBuffer view = location.segment.buffer.duplicate();
+                    view.position(location.offset);
+                    view.get(record);
+                    Location moved = appendRecord(record);
+                    location.segment.liveBytes -= location.size;
+                    index.put(e.getKey(), moved);
+                }
+            }
+            for (Segment segment : candidates) {
+                segments.remove(segment);
+                delete(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes and deletes every segment file.
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private Location append(byte[] data, long expiresAtMillis) {
+        byte[] record = new byte[HEADER_SIZE + data.length];
+        ByteBuffer.wrap(record).putInt(data.length).putLong(expiresAtMillis).put(data);
+        return appendRecord(record);
+    }
+
+    private Location appendRecord(byte[] record) {
+        if (active == null || active.remaining() < record.length) {
+            active = newSegment();
+        }
+        Segment segment = active;
+        int offset = segment.position;
+        ByteBuffer view = segment.buffer.duplicate();
+        view.position(offset);
+        view.put(record);
+        segment.position += record.length;
+        segment.liveBytes += record.length;
+        return new Location(segment, offset, record.length);
+    }
+
+    private void unlink(Location location) {
+        if (location != null) {
+            location.segment.liveBytes -= location.size;
+        }
+    }
+
+    private void trimToMaximumSize() {
+        while ((long) segments.size() * segmentSize > maximumSize && segments.size() > 1) {
+            Segment oldest = segments.pollFirst();
+            index.values().removeIf(location -> location.segment == oldest);
+            delete(oldest);
+        }
+    }
+
+    private Segment newSegment() {
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        try {
+            Segment segment = new Segment(path, segmentSize);
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create disk segment " + path, e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // A mapped file may not be deletable until it is unmapped by the garbage collector
+        }
+    }
+
+    private void deleteSegments() throws IOException {
+        List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(stale::add);
+        }
+        for (Path path : stale) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package io.github.dpflux.jcachex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers cache events to the registered listeners.
+ * <p>
+ * Without an executor, every event is delivered synchronously on the thread
+ * that caused it, as the individual {@link CacheEventListener} callbacks.
+ * With an executor, events are appended to a bounded multi-producer,
+ * single-consumer ring and delivered by a single drain task at a time, in
+ * batches, through {@link CacheEventListener#onEvents(List)}. Because there is
+ * only ever one consumer, listeners see events in the order they were
+ * published, which in particular keeps the events of each key in order. When
+ * the ring is full, writers wait for the drain task to make room, so a
+ * listener that falls behind slows writers down. A writer gives up after
+ * waiting for about a second; its event is then dropped and counted in
+ * {@link #droppedCount()}, so that a stuck listener cannot stall the cache.
+ * <p>
+ * Events published by a listener from the drain task, such as a write to the
+ * cache, are queued behind the events already waiting. Only if the ring is
+ * full are they delivered immediately, ahead of those events, since the drain
+ * task cannot wait for itself.
+ * <p>
+ * Every publishing method returns immediately when there are no listeners,
+ * without allocating.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+final class EventDispatcher<K, V> {
+    static final int MAX_BATCH_SIZE = 64;
+    static final long DEFAULT_MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_SPINS = 64;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final CacheEventListener<K, V>[] listeners;
+    private final Executor executor;
+    private final AtomicReferenceArray<CacheEvent<K, V>> ring;
+    private final int mask;
+    private final AtomicLong tail;
+    private final AtomicBoolean scheduled;
+    private final long maxWaitNanos;
+    private final LongAdder dropped;
+    private volatile long head;
+    private volatile Thread drainThread;
+
+    EventDispatcher(Collection<CacheEventListener<K, V>> listeners, Executor executor, int capacity) {
+        this(listeners, executor, capacity, DEFAULT_MAX_WAIT_NANOS);
+    }
+
+    EventDispatcher(Collection<CacheEventListener<K, V>> listeners, Executor executor, int capacity,
+            long maxWaitNanos) {
+        this.listeners = toArray(listeners);
+        this.executor = executor;
+        this.maxWaitNanos = maxWaitNanos;
+        this.dropped = new LongAdder();
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = executor != null && this.listeners.length != 0 ? new AtomicReferenceArray<>(size) : null;
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.scheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Returns true if there are listeners, for callers that would otherwise
+     * compute an event's value only to have it ignored.
+     */
+    boolean isEnabled() {
+        return listeners.length != 0;
+    }
+
+    /**
+     * Returns the number of events dropped because the ring stayed full for
+     * longer than a writer may wait.
+     */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    void put(K key, V value) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onPut(key, value);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.PUT, key, value, null, null));
+        }
+    }
+
+    void remove(K key, V value) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onRemove(key, value);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.REMOVE, key, value, null, null));
+        }
+    }
+
+    void evict(K key, V value, EvictionReason reason) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onEvict(key, value, reason);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.EVICT, key, value, reason, null));
+        }
+    }
+
+    void expire(K key, V value) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onExpire(key, value);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.EXPIRE, key, value, null, null));
+        }
+    }
+
+    void load(K key, V value) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onLoad(key, value);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.LOAD, key, value, null, null));
+        }
+    }
+
+    void loadError(K key, Throwable error) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onLoadError(key, error);
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.LOAD_ERROR, key, null, null, error));
+        }
+    }
+
+    void clear() {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (executor == null) {
+            for (CacheEventListener<K, V> listener : listeners) {
+                listener.onClear();
+            }
+        } else {
+            publish(new CacheEvent<>(CacheEvent.Type.CLEAR, null, null, null, null));
+        }
+    }
+
+    private void publish(CacheEvent<K, V> event) {
+        if (Thread.currentThread() == drainThread) {
+            // The drain picks the event up after the current batch; it must not wait for itself
+            if (!offer(event)) {
+                deliver(event);
+            }
+            return;
+        }
+        if (!offer(event) && !awaitOffer(event)) {
+            dropped.increment();
+            return;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Waits for the drain task to make room for the event, spinning briefly and
+     * then parking, for at most the maximum wait.
+     *
+     * @return true if the event was queued
+     */
+    private boolean awaitOffer(CacheEvent<K, V> event) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        for (int spins = 0;; spins++) {
+            scheduleDrain();
+            if (spins < MAX_SPINS) {
+                Thread.yield();
+            } else if (deadline - System.nanoTime() > 0L) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else {
+                return false;
+            }
+            if (offer(event)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean offer(CacheEvent<K, V> event) {
+        for (;;) {
+            long t = tail.get();
+            if (t - head > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                ring.lazySet((int) (t & mask), event);
+                return true;
+            }
+        }
+    }
+
+    private CacheEvent<K, V> poll() {
+        long h = head;
+        int index = (int) (h & mask);
+        CacheEvent<K, V> event = ring.get(index);
+        if (event == null) {
+            // Empty, or a producer claimed the slot but has not published it yet
+            return null;
+        }
+        ring.lazySet(index, null);
+        head = h + 1;
+        return event;
+    }
+
+    private void scheduleDrain() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        drainThread = Thread.currentThread();
+        try {
+            List<CacheEvent<K, V>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            int spins = 0;
+            for (;;) {
+                CacheEvent<K, V> event;
+                while ((event = poll()) != null) {
+                    spins = 0;
+                    batch.add(event);
+                    if (batch.size() == MAX_BATCH_SIZE) {
+                        deliver(batch);
+                        batch = new ArrayList<>(MAX_BATCH_SIZE);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch = new ArrayList<>(MAX_BATCH_SIZE);
+                }
+                if (tail.get() != head && ++spins < MAX_SPINS) {
+                    // A producer is still publishing its claimed slot
+                    Thread.yield();
+                    continue;
+                }
+                spins = 0;
+                scheduled.set(false);
+                // Keep going if an event was published after the last poll but
+                // before the flag was cleared, as its producer saw a drain scheduled.
+                // A producer that has not published its slot yet schedules a new drain.
+                if (ring.get((int) (head & mask)) == null || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } finally {
+            drainThread = null;
+        }
+    }
+
+    private void deliver(List<CacheEvent<K, V>> batch) {
+        List<CacheEvent<K, V>> events = Collections.unmodifiableList(batch);
+        for (CacheEventListener<K, V> listener : listeners) {
+            try {
+                listener.onEvents(events);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop delivery to the others
+            }
+        }
+    }
+
+    private void deliver(CacheEvent<K, V> event) {
+        for (CacheEventListener<K, V> listener : listeners) {
+            try {
+                event.dispatchTo(listener);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop delivery to the others
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheEventListener<K, V>[] toArray(Collection<CacheEventListener<K, V>> listeners) {
+        return listeners.toArray((CacheEventListener<K, V>[]) new CacheEventListener<?, ?>[0]);
+    }
+}
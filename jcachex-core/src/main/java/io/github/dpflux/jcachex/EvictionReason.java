@@ -29,6 +29,14 @@ public enum EvictionReason {
      */
     CLEARED,
 
+    /**
+     * The entry was evicted because the garbage collector reclaimed its weakly
+     * or softly held key or value. Such evictions are counted in the cache
+     * statistics, but listeners are not notified of them, since the key or value
+     * they would receive no longer exists.
+     */
+    COLLECTED,
+
     /**
      * The entry was evicted for an unknown reason.
      */
@@ -0,0 +1,106 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets in the style of HdrHistogram: each
+ * power of two is split into 32 equal sub-buckets, so any recorded value is
+ * reported to within about 3% of its true value across the whole range of a
+ * {@code long}. The bucket array is allocated once; recording a value is an
+ * index computation and an atomic increment, and never allocates.
+ * <p>
+ * Besides cumulative snapshots, the histogram supports interval snapshots that
+ * only cover the values recorded since the previous interval snapshot, which
+ * suits periodic metrics reporting.
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+    private final AtomicLong intervalMax;
+    private final long[] previous;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.max = new AtomicLong();
+        this.intervalMax = new AtomicLong();
+        this.previous = new long[BUCKET_COUNT];
+    }
+
+    /**
+     * Records a latency. Negative values are recorded as zero.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        counts.incrementAndGet(indexOf(value));
+        updateMax(max, value);
+        updateMax(intervalMax, value);
+    }
+
+    /**
+     * Returns the distribution of every value recorded so far.
+     *
+     * @return a cumulative snapshot
+     */
+    public LatencySnapshot snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new LatencySnapshot(snapshot, max.get());
+    }
+
+    /**
+     * Returns the distribution of the values recorded since the previous call
+     * to this method, or since the histogram was created.
+     *
+     * @return a snapshot of the current interval
+     */
+    public synchronized LatencySnapshot intervalSnapshot() {
+        long intervalMaximum = intervalMax.getAndSet(0L);
+        long[] interval = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long current = counts.get(i);
+            interval[i] = current - previous[i];
+            previous[i] = current;
+        }
+        return new LatencySnapshot(interval, intervalMaximum);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Returns the largest value that is counted in the bucket at the index.
+     */
+    static long highestValueAt(int index) {
+        int group = index >>> SUB_BUCKET_BITS;
+        if (group == 0) {
+            return index;
+        }
+        int shift = group - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static void updateMax(AtomicLong maximum, long value) {
+        long current;
+        while (value > (current = maximum.get()) && !maximum.compareAndSet(current, value)) {
+            // Retry until the maximum is at least the value
+        }
+    }
+}
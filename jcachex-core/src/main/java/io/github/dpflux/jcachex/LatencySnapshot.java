@@ -0,0 +1,109 @@
+package io.github.dpflux.jcachex;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable view of the latencies recorded by a {@link LatencyHistogram}.
+ * All values are in nanoseconds.
+ */
+public final class LatencySnapshot {
+    private static final LatencySnapshot EMPTY = new LatencySnapshot(new long[0], 0L);
+
+    private final long[] counts;
+    private final long count;
+    private final long max;
+
+    LatencySnapshot(long[] counts, long max) {
+        this.counts = counts;
+        this.max = max;
+        long total = 0L;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+    }
+
+    /**
+     * Returns a snapshot without any recorded values.
+     *
+     * @return the empty snapshot
+     */
+    public static LatencySnapshot empty() {
+        return EMPTY;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the value at the given percentile, accurate to the precision of
+     * the histogram's buckets.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long p50() {
+        return percentile(50.0);
+    }
+
+    public long p99() {
+        return percentile(99.0);
+    }
+
+    public long p999() {
+        return percentile(99.9);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        LatencySnapshot that = (LatencySnapshot) o;
+        if (count != that.count || max != that.max) {
+            return false;
+        }
+        return count == 0L || Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return count == 0L ? 0 : 31 * Arrays.hashCode(counts) + Long.hashCode(max);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "count=" + count +
+                ", p50=" + TimeUnit.NANOSECONDS.toMicros(p50()) + "us" +
+                ", p99=" + TimeUnit.NANOSECONDS.toMicros(p99()) + "us" +
+                ", p999=" + TimeUnit.NANOSECONDS.toMicros(p999()) + "us" +
+                ", max=" + TimeUnit.NANOSECONDS.toMicros(max) + "us" +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * A cache entry whose value lives in an {@link OffHeapStore}. Only the handle
+ * of the value is kept on the heap; {@link #getValue()} deserializes it.
+ *
+ * @param <V> the type of the cached value
+ */
+final class OffHeapEntry<V> extends CacheEntry<V> {
+    private final OffHeapStore<V> store;
+    private final OffHeapStore.Handle handle;
+    private volatile boolean released;
+
+    OffHeapEntry(OffHeapStore<V> store, OffHeapStore.Handle handle, long weight,
+            long creationNanos, long expirationNanos) {
+        super(null, weight, creationNanos, expirationNanos);
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * Returns the value, or null if the entry has been removed from the cache
+     * and its memory freed.
+     */
+    @Override
+    public V getValue() {
+        return handle != null ? store.read(handle) : null;
+    }
+
+    @Override
+    void release() {
+        // Mark before freeing, so that a reader whose read fails sees the flag
+        released = true;
+        if (handle != null) {
+            store.free(handle);
+        }
+    }
+
+    @Override
+    boolean isReleased() {
+        return released;
+    }
+}
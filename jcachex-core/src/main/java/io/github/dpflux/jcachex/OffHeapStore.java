@@ -0,0 +1,256 @@
+package io.github.dpflux.jcachex;
+
+import io.github.dpflux.jcachex.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Stores serialized values in slabs of direct memory, outside the Java heap.
+ * <p>
+ * Values are appended to the current slab with a bump pointer and referenced
+ * by a small {@link Handle}, so the heap cost of a value is constant no matter
+ * how large it is. Freeing a value only marks its bytes as dead. When the
+ * current slab fills up, the store moves on to an empty slab and compacts into
+ * it the slabs that are mostly dead, relocating their live values and
+ * recycling them whole. Values larger than a slab get a dedicated slab that is
+ * released as soon as the value is freed.
+ * <p>
+ * Writes are serialized by a lock. Reads are optimistic: they copy the bytes
+ * without locking and only retry under the read lock if a concurrent write
+ * may have moved them.
+ *
+ * @param <V> the type of stored values
+ */
+final class OffHeapStore<V> {
+    private static final double COMPACTION_THRESHOLD = 0.5;
+    private static final int MAX_FREE_SLABS = 2;
+
+    private final Serializer<V> serializer;
+    private final int slabSize;
+    private final StampedLock lock;
+    private final List<Slab> slabs;
+    private final ArrayDeque<Slab> freeSlabs;
+    private Slab current;
+    private long allocatedBytes;
+    private long liveBytes;
+
+    private static final class Slab {
+        final ByteBuffer buffer;
+        final List<Handle> handles = new ArrayList<>();
+        int position;
+        int liveBytes;
+
+        Slab(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+
+    /**
+     * The location of a stored value. Its fields are guarded by the store's
+     * lock and change when compaction relocates the value.
+     */
+    static final class Handle {
+        final int length;
+        Slab slab;
+        int offset;
+        int index;
+
+        Handle(int length) {
+            this.length = length;
+        }
+    }
+
+    OffHeapStore(Serializer<V> serializer, int slabSize) {
+        this.serializer = serializer;
+        this.slabSize = slabSize;
+        this.lock = new StampedLock();
+        this.slabs = new ArrayList<>();
+        this.freeSlabs = new ArrayDeque<>();
+    }
+
+    /**
+     * Serializes and stores a value.
+     *
+     * @return the handle of the stored value
+     */
+    Handle store(V value) {
+        byte[] data = serializer.serialize(value);
+        long stamp = lock.writeLock();
+        try {
+            Handle handle = new Handle(data.length);
+            write(slabFor(data.length), handle, data);
+            liveBytes += data.length;
+            return handle;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reads and deserializes a stored value.
+     *
+     * @return the value, or null if it has been freed
+     */
+    V read(Handle handle) {
+        byte[] data = new byte[handle.length];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L && copy(handle, data) && lock.validate(stamp)) {
+            return serializer.deserialize(data);
+        }
+        stamp = lock.readLock();
+        try {
+            if (!copy(handle, data)) {
+                return null;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return serializer.deserialize(data);
+    }
+
+    /**
+     * Frees a stored value. Freeing a value twice has no effect.
+     */
+    void free(Handle handle) {
+        long stamp = lock.writeLock();
+        try {
+            Slab slab = handle.slab;
+            if (slab == null) {
+                return;
+            }
+            Handle last = slab.handles.remove(slab.handles.size() - 1);
+            if (last != handle) {
+                slab.handles.set(handle.index, last);
+                last.index = handle.index;
+            }
+            handle.slab = null;
+            slab.liveBytes -= handle.length;
+            liveBytes -= handle.length;
+            if (slab.liveBytes == 0 && slab != current) {
+                recycle(slab);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by the store.
+     */
+    long allocatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return allocatedBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of bytes occupied by values that have not been freed.
+     */
+    long liveBytes() {
+        long stamp = lock.readLock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Slab slabFor(int length) {
+        if (length > slabSize) {
+            Slab oversized = allocate(length);
+            slabs.add(oversized);
+            return oversized;
+        }
+        if (current != null && current.remaining() >= length) {
+            return current;
+        }
+        Slab previous = current;
+        current = freeSlabs.isEmpty() ? allocate(slabSize) : freeSlabs.poll();
+        slabs.add(current);
+        if (previous != null && previous.liveBytes == 0) {
+            recycle(previous);
+        }
+        compact(length);
+        return current;
+    }
+
+    /**
+     * Moves the live values of mostly dead slabs into the current slab, keeping
+     * enough room for the value being stored, and recycles the emptied slabs.
+     */
+    private void compact(int reserve) {
+        List<Slab> candidates = new ArrayList<>();
+        for (Slab slab : slabs) {
+            if (slab != current && slab.buffer.capacity() == slabSize
+                    && slab.liveBytes < slab.position * COMPACTION_THRESHOLD) {
+                candidates.add(slab);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(slab -> slab.liveBytes));
+        for (Slab slab : candidates) {
+            if (slab.liveBytes > current.remaining() - reserve) {
+                break;
+            }
+            for (Handle handle : slab.handles) {
+                byte[] data = new byte[handle.length];
+                copy(handle, data);
+                write(current, handle, data);
+            }
+            slab.handles.clear();
+            slab.liveBytes = 0;
+            recycle(slab);
+        }
+    }
+
+    private void write(Slab slab, Handle handle, byte[] data) {
+        ByteBuffer view = slab.buffer.duplicate();
+        view.position(slab.position);
+        view.put(data);
+        handle.slab = slab;
+        handle.offset = slab.position;
+        handle.index = slab.handles.size();
+        slab.handles.add(handle);
+        slab.position += data.length;
+        slab.liveBytes += data.length;
+    }
+
+    private Slab allocate(int capacity) {
+        allocatedBytes += capacity;
+        return new Slab(capacity);
+    }
+
+    private void recycle(Slab slab) {
+        slabs.remove(slab);
+        if (slab.buffer.capacity() == slabSize && freeSlabs.size() < MAX_FREE_SLABS) {
+            slab.position = 0;
+            freeSlabs.push(slab);
+        } else {
+            // The direct buffer is released once it is garbage collected
+            allocatedBytes -= slab.buffer.capacity();
+        }
+    }
+
+    private static boolean copy(Handle handle, byte[] data) {
+        Slab slab = handle.slab;
+        int offset = handle.offset;
+        if (slab == null || offset < 0 || offset > slab.buffer.capacity() - data.length) {
+            return false;
+        }
+        ByteBuffer view = slab.buffer.duplicate();
+        view.position(offset);
+        view.get(data);
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.dpflux.jcachex;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * A striped, lossy buffer of cache reads waiting to be applied to the eviction
+ * policy.
+ * <p>
+ * Readers are spread across stripes by thread so that recording a hit only
+ * touches a stripe-local counter instead of shared policy state. Each stripe
+ * is a small bounded ring; when it is full, or when a concurrent reader wins
+ * the slot, the read is simply dropped. Losing a few access records only makes
+ * the eviction order slightly less precise, which is an acceptable price for
+ * keeping the read path free of locks and contended writes.
+ * <p>
+ * Any number of threads may call {@link #offer}, but {@link #drainTo} must be
+ * called by one thread at a time, typically while holding the cache's
+ * maintenance lock.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <E> the type of recorded entries
+ */
+final class ReadBuffer<K, E> {
+    static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final Stripe<K, E>[] stripes;
+    private final int stripeMask;
+
+    private static final class Stripe<K, E> {
+        final AtomicReferenceArray<K> keys = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicReferenceArray<E> entries = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;
+    }
+
+    ReadBuffer() {
+        int count = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+        this.stripes = newStripes(count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Records a read, dropping it if the stripe is full or contended.
+     *
+     * @return true if the stripe is full and the buffer should be drained
+     */
+    boolean offer(K key, E entry) {
+        Stripe<K, E> stripe = stripes[probe() & stripeMask];
+        long tail = stripe.writeCounter.get();
+        long size = tail - stripe.readCounter;
+        if (size >= BUFFER_SIZE) {
+            return true;
+        }
+        if (stripe.writeCounter.compareAndSet(tail, tail + 1)) {
+            int index = (int) (tail & BUFFER_MASK);
+            stripe.keys.lazySet(index, key);
+            stripe.entries.lazySet(index, entry);
+            return size + 1 >= BUFFER_SIZE;
+        }
+        return false;
+    }
+
+    /**
+     * Hands every published read to the consumer and frees its slot.
+     */
+    void drainTo(BiConsumer<K, E> consumer) {
+        for (Stripe<K, E> stripe : stripes) {
+            long head = stripe.readCounter;
+            long tail = stripe.writeCounter.get();
+            for (; head != tail; head++) {
+                int index = (int) (head & BUFFER_MASK);
+                E entry = stripe.entries.get(index);
+                if (entry == null) {
+                    // The writer claimed the slot but has not published it yet
+                    break;
+                }
+                K key = stripe.keys.get(index);
+                stripe.entries.lazySet(index, null);
+                stripe.keys.lazySet(index, null);
+                consumer.accept(key, entry);
+            }
+            stripe.readCounter = head;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, E> Stripe<K, E>[] newStripes(int count) {
+        return (Stripe<K, E>[]) new Stripe<?, ?>[count];
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.dpflux.jcachex;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+/**
+ * A cache entry whose key, value or both are held through references that the
+ * garbage collector may clear.
+ * <p>
+ * A weakly held key is stored in the cache map as a {@link WeakKey}, and
+ * looked up with a {@link LookupKey}; both compare their referents by identity,
+ * as a weak key can only ever be found again through the very same object.
+ * Every reference is registered with the cache's reference queue, and cleared
+ * references identify the map key of the entry to remove. A value reference
+ * therefore carries the map key it was stored under.
+ *
+ * @param <V> the type of the cached value
+ */
+final class ReferenceEntry<V> extends CacheEntry<V> {
+    private final Object keyReference;
+    private final Reference<V> valueReference;
+
+    /**
+     * Creates an entry.
+     *
+     * @param keyReference   the weak key the entry is stored under, or null if
+     *                       the key is held strongly
+     * @param valueReference the reference to the value, or null if the value
+     *                       is held strongly
+     * @param value          the value, used only if it is held strongly
+     */
+    ReferenceEntry(Object keyReference, Reference<V> valueReference, V value, long weight,
+            long creationNanos, long expirationNanos) {
+        super(valueReference == null ? value : null, weight, creationNanos, expirationNanos);
+        this.keyReference = keyReference;
+        this.valueReference = valueReference;
+    }
+
+    /**
+     * Returns the value, or null if it has been reclaimed.
+     */
+    @Override
+    public V getValue() {
+        return valueReference != null ? valueReference.get() : super.getValue();
+    }
+
+    @Override
+    boolean isCollected() {
+        return (valueReference != null && valueReference.get() == null)
+                || (keyReference != null && ((WeakKey<?>) keyReference).get() == null);
+    }
+
+    @Override
+    Object keyReference() {
+        return keyReference;
+    }
+
+    /**
+     * A key compared by the identity of its referent.
+     *
+     * @param <K> the type of keys maintained by the cache
+     */
+    interface KeyReference<K> {
+        K get();
+    }
+
+    /**
+     * A reference to a value, remembering the map key of its entry.
+     */
+    interface ValueReference {
+        Object mapKey();
+    }
+
+    /**
+     * The weak reference under which an entry is stored. Once cleared it is
+     * only equal to itself, which is enough to remove it from the map.
+     *
+     * @param <K> the type of keys maintained by the cache
+     */
+    static final class WeakKey<K> extends WeakReference<K> implements KeyReference<K> {
+        private final int hash;
+
+        WeakKey(K key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return referentEquals(this, o);
+        }
+    }
+
+    /**
+     * A short-lived strong key, used to look up a weakly held one.
+     *
+     * @param <K> the type of keys maintained by the cache
+     */
+    static final class LookupKey<K> implements KeyReference<K> {
+        private final K key;
+        private final int hash;
+
+        LookupKey(K key) {
+            this.key = key;
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public K get() {
+            return key;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return referentEquals(this, o);
+        }
+    }
+
+    static final class WeakValue<V> extends WeakReference<V> implements ValueReference {
+        private final Object mapKey;
+
+        WeakValue(V value, Object mapKey, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.mapKey = mapKey;
+        }
+
+        @Override
+        public Object mapKey() {
+            return mapKey;
+        }
+    }
+
+    static final class SoftValue<V> extends SoftReference<V> implements ValueReference {
+        private final Object mapKey;
+
+        SoftValue(V value, Object mapKey, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.mapKey = mapKey;
+        }
+
+        @Override
+        public Object mapKey() {
+            return mapKey;
+        }
+    }
+
+    private static boolean referentEquals(KeyReference<?> reference, Object o) {
+        if (o == reference) {
+            return true;
+        }
+        if (!(o instanceof KeyReference)) {
+            return false;
+        }
+        Object referent = reference.get();
+        return referent != null && referent == ((KeyReference<?>) o).get();
+    }
+}
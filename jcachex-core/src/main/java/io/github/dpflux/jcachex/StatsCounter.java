@@ -0,0 +1,60 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * Accumulates statistics while a cache is in use.
+ * <p>
+ * Implementations are called on the cache's hot paths, so they must be
+ * thread-safe and should avoid contended writes. The cache uses a
+ * {@link ConcurrentStatsCounter} by default and {@link #disabled()} when
+ * statistics recording is turned off.
+ */
+public interface StatsCounter {
+
+    /**
+     * Records a lookup that found a present value.
+     */
+    void recordHit();
+
+    /**
+     * Records a lookup that did not find a present value.
+     */
+    void recordMiss();
+
+    /**
+     * Records the eviction of an entry.
+     */
+    void recordEviction();
+
+    /**
+     * Records a successful load.
+     *
+     * @param loadTime the time spent loading, in nanoseconds
+     */
+    void recordLoad(long loadTime);
+
+    /**
+     * Records a load that failed or returned no value.
+     */
+    void recordLoadFailure();
+
+    /**
+     * Records a lookup that joined a load already in flight for the same key.
+     */
+    void recordCoalescedLoad();
+
+    /**
+     * Returns a snapshot of the statistics recorded so far.
+     *
+     * @return the current statistics
+     */
+    CacheStats snapshot();
+
+    /**
+     * Returns a counter that records nothing.
+     *
+     * @return the disabled counter
+     */
+    static StatsCounter disabled() {
+        return DisabledStatsCounter.INSTANCE;
+    }
+}
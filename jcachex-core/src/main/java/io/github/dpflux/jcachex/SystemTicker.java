@@ -0,0 +1,13 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * A {@link Ticker} that reads {@link System#nanoTime()}.
+ */
+enum SystemTicker implements Ticker {
+    INSTANCE;
+
+    @Override
+    public long read() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.dpflux.jcachex;
+
+/**
+ * A source of time for the cache, in nanoseconds on an arbitrary but
+ * monotonic timeline.
+ * <p>
+ * Entries store their write, access and expiration times as primitive
+ * readings of the cache's ticker, so reading the time never allocates.
+ * Tests can supply their own ticker to advance time deterministically.
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * Returns the current time in nanoseconds.
+     *
+     * @return the number of nanoseconds elapsed since an arbitrary fixed point
+     */
+    long read();
+
+    /**
+     * Returns a ticker that reads {@link System#nanoTime()}.
+     *
+     * @return the system ticker
+     */
+    static Ticker systemTicker() {
+        return SystemTicker.INSTANCE;
+    }
+
+    /**
+     * Returns a coarse ticker whose time is refreshed by a background daemon
+     * thread about once a millisecond. Reading it is a single volatile load,
+     * which is cheaper than {@link System#nanoTime()} on some platforms, at the
+     * cost of expiration being up to a millisecond late.
+     *
+     * @return the shared cached ticker
+     */
+    static Ticker cachedTicker() {
+        return CachedTicker.INSTANCE;
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.dpflux.jcachex;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A hierarchical timing wheel that tracks when cache entries expire.
+ * <p>
+ * Deadlines are hashed into buckets by their time, on one of several wheels
+ * of increasing granularity: roughly one-second buckets for the next minute,
+ * one-minute buckets for the next hour, one-hour buckets for the next day or
+ * so, and coarser wheels beyond that. Scheduling, rescheduling and cancelling a
+ * timer are constant-time list operations. Advancing the wheel only visits the
+ * buckets whose time span has elapsed; timers found there that are not yet due
+ * (because they were placed on a coarser wheel) cascade down to a finer one.
+ * <p>
+ * Deadlines may differ per entry. Times are expressed in nanoseconds on an
+ * arbitrary but consistent timeline. This class is not thread-safe; callers
+ * are expected to guard it with the cache's maintenance lock.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+final class TimerWheel<K, V> {
+    private static final int[] BUCKETS = { 64, 64, 32, 8, 1 };
+    private static final int[] SHIFTS = { 30, 36, 42, 47, 50 };
+
+    private final Node<K, V>[][] wheel;
+    private long nanos;
+
+    /**
+     * A timer linked into a bucket of the wheel.
+     *
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     */
+    static final class Node<K, V> {
+        final K key;
+        final CacheEntry<V> entry;
+        long time;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, CacheEntry<V> entry, long time) {
+            this.key = key;
+            this.entry = entry;
+            this.time = time;
+        }
+    }
+
+    TimerWheel(long currentTime) {
+        this.nanos = currentTime;
+        this.wheel = newWheel(BUCKETS.length);
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = newBuckets(BUCKETS[i]);
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                Node<K, V> sentinel = new Node<>(null, null, 0L);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer for the entry to fire at the given time.
+     *
+     * @return the scheduled timer, which can later be rescheduled or cancelled
+     */
+    Node<K, V> schedule(K key, CacheEntry<V> entry, long time) {
+        Node<K, V> node = new Node<>(key, entry, time);
+        link(findBucket(time), node);
+        return node;
+    }
+
+    /**
+     * Moves an existing timer to a new time.
+     */
+    void reschedule(Node<K, V> node, long time) {
+        if (node.next != null) {
+            unlink(node);
+        }
+        node.time = time;
+        link(findBucket(time), node);
+    }
+
+    /**
+     * Removes a timer so that it never fires.
+     */
+    void cancel(Node<K, V> node) {
+        if (node != null && node.next != null) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time and hands every timer that is due to
+     * the consumer. Timers that are not due yet are cascaded to a finer bucket.
+     *
+     * @param currentTime the current time in nanoseconds
+     * @param expired     receives the key and entry of each expired timer
+     */
+    void advance(long currentTime, BiConsumer<K, CacheEntry<V>> expired) {
+        long previousTime = nanos;
+        nanos = currentTime;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            long previousTicks = previousTime >>> SHIFTS[i];
+            long currentTicks = currentTime >>> SHIFTS[i];
+            if (currentTicks - previousTicks <= 0L) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, expired);
+        }
+    }
+
+    private void expire(int level, long previousTicks, long delta, BiConsumer<K, CacheEntry<V>> expired) {
+        Node<K, V>[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = 0; i < steps; i++) {
+            Node<K, V> sentinel = buckets[(start + i) & mask];
+            Node<K, V> node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+
+            while (node != sentinel) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.time <= nanos) {
+                    expired.accept(node.key, node.entry);
+                } else {
+                    link(findBucket(node.time), node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Node<K, V> findBucket(long time) {
+        // Overdue timers go into the current bucket and fire on the next tick
+        long effective = time - nanos < 0L ? nanos : time;
+        long duration = effective - nanos;
+        int last = BUCKETS.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (duration < (1L << SHIFTS[i + 1])) {
+                long ticks = effective >>> SHIFTS[i];
+                return wheel[i][(int) (ticks & (BUCKETS[i] - 1))];
+            }
+        }
+        return wheel[last][0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[][] newWheel(int levels) {
+        return (Node<K, V>[][]) new Node<?, ?>[levels][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newBuckets(int count) {
+        return (Node<K, V>[]) new Node<?, ?>[count];
+    }
+
+    private static <K, V> void link(Node<K, V> sentinel, Node<K, V> node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+}
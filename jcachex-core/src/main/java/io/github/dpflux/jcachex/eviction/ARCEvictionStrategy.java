@@ -0,0 +1,176 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive Replacement Cache (ARC) eviction strategy.
+ * <p>
+ * Resident entries are split between two LRU lists: T1 holds entries seen
+ * once recently and T2 holds entries seen at least twice. Each has a ghost
+ * list, B1 and B2, remembering the keys recently evicted from it. A target
+ * size for T1 decides which list gives up the next victim. A miss on a key in
+ * B1 means recency was undervalued, so the target grows; a miss on a key in B2
+ * means frequency was undervalued, so it shrinks. The split between recency
+ * and frequency thereby follows the workload without tuning.
+ * <p>
+ * Ghost lists only hold keys, never values, and are trimmed so that T1 and B1
+ * together never track more than {@code maximumSize} keys and all four lists
+ * together never track more than twice that. Every operation is constant time.
+ * <p>
+ * As the cache removes a selected entry right away, selecting a victim moves
+ * it to its ghost list at once, and the strategy keeps no state between
+ * selection and removal. Concurrent evictions therefore select distinct
+ * victims, and a removal racing with a selection cannot be mistaken for it.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class ARCEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final AccessOrderDeque<K> t1 = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> t2 = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> b1 = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> b2 = new AccessOrderDeque<>();
+    private final long maximumSize;
+    private long recencyTarget;
+    private boolean lastMissInB2;
+
+    private enum ListType {
+        T1, T2, B1, B2
+    }
+
+    private static final class Node<K> extends AccessOrderDeque.Node<K> {
+        ListType list;
+
+        Node(K key, ListType list) {
+            super(key);
+            this.list = list;
+        }
+    }
+
+    /**
+     * Creates an ARC strategy for a cache bounded to the given number of
+     * entries.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     */
+    public ARCEvictionStrategy(long maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be greater than 0");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public synchronized void update(K key, CacheEntry<V> entry) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            lastMissInB2 = false;
+            node = new Node<>(key, ListType.T1);
+            nodes.put(key, node);
+            t1.addLast(node);
+            trimGhosts();
+            return;
+        }
+
+        switch (node.list) {
+            case T1:
+                t1.remove(node);
+                break;
+            case T2:
+                t2.remove(node);
+                break;
+            case B1:
+                recencyTarget = Math.min(maximumSize, recencyTarget + Math.max(b2.size() / b1.size(), 1));
+                lastMissInB2 = false;
+                b1.remove(node);
+                break;
+            default:
+                recencyTarget = Math.max(0L, recencyTarget - Math.max(b1.size() / b2.size(), 1));
+                lastMissInB2 = true;
+                b2.remove(node);
+                break;
+        }
+        node.list = ListType.T2;
+        t2.addLast(node);
+    }
+
+    /**
+     * Removes an entry. Entries selected for eviction are already ghosts and
+     * stay remembered; any other entry is forgotten.
+     */
+    @Override
+    public synchronized void remove(K key) {
+        Node<K> node = nodes.get(key);
+        if (node == null || node.list == ListType.B1 || node.list == ListType.B2) {
+            return;
+        }
+        (node.list == ListType.T1 ? t1 : t2).remove(node);
+        nodes.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        t1.clear();
+        t2.clear();
+        b1.clear();
+        b2.clear();
+        recencyTarget = 0L;
+        lastMissInB2 = false;
+    }
+
+    /**
+     * Selects the least recently used entry of T1 if T1 exceeds its target
+     * size, and of T2 otherwise, and moves it to the matching ghost list.
+     */
+    @Override
+    public synchronized K selectEvictionCandidate() {
+        boolean fromT1 = !t1.isEmpty() && (t2.isEmpty() || t1.size() > recencyTarget
+                || (lastMissInB2 && t1.size() == recencyTarget));
+        Node<K> victim = (Node<K>) (fromT1 ? t1.pollFirst() : t2.pollFirst());
+        if (victim == null) {
+            return null;
+        }
+        if (fromT1) {
+            victim.list = ListType.B1;
+            b1.addLast(victim);
+        } else {
+            victim.list = ListType.B2;
+            b2.addLast(victim);
+        }
+        trimGhosts();
+        return victim.key;
+    }
+
+    /**
+     * Returns the current target size of T1.
+     */
+    synchronized long recencyTarget() {
+        return recencyTarget;
+    }
+
+    /**
+     * Returns the number of keys tracked, resident or ghost.
+     */
+    synchronized int trackedSize() {
+        return nodes.size();
+    }
+
+    private void trimGhosts() {
+        while (t1.size() + b1.size() > maximumSize && !b1.isEmpty()) {
+            nodes.remove(b1.pollFirst().key);
+        }
+        while (t1.size() + t2.size() + b1.size() + b2.size() > 2 * maximumSize) {
+            AccessOrderDeque<K> ghost = !b2.isEmpty() ? b2 : b1;
+            if (ghost.isEmpty()) {
+                break;
+            }
+            nodes.remove(ghost.pollFirst().key);
+        }
+    }
+}
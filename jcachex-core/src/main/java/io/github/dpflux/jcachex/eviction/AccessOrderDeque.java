@@ -0,0 +1,142 @@
+package io.github.dpflux.jcachex.eviction;
+
+/**
+ * Intrusive doubly-linked deque used by eviction strategies to keep entries in
+ * access or insertion order. Each node carries its own links, so adding,
+ * removing and moving a node are constant-time operations that allocate
+ * nothing beyond the node itself.
+ * <p>
+ * This class is not thread-safe; callers are expected to guard it with the
+ * lock of the owning strategy.
+ *
+ * @param <K> the type of keys maintained by the cache
+ */
+final class AccessOrderDeque<K> {
+    private Node<K> head;
+    private Node<K> tail;
+    private int size;
+
+    /**
+     * A node linked into an {@link AccessOrderDeque}. Strategies may extend this
+     * class to carry additional per-entry policy state.
+     *
+     * @param <K> the type of keys maintained by the cache
+     */
+    static class Node<K> {
+        final K key;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Returns true if the given node is currently linked into this deque.
+     */
+    boolean contains(Node<K> node) {
+        return node.prev != null || node.next != null || head == node;
+    }
+
+    /**
+     * Links the node at the tail (most recently used end) of the deque.
+     */
+    void addLast(Node<K> node) {
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+    }
+
+    /**
+     * Links the node at the head (least recently used end) of the deque.
+     */
+    void addFirst(Node<K> node) {
+        node.prev = null;
+        node.next = head;
+        if (head == null) {
+            tail = node;
+        } else {
+            head.prev = node;
+        }
+        head = node;
+        size++;
+    }
+
+    /**
+     * Unlinks the node from the deque.
+     */
+    void remove(Node<K> node) {
+        Node<K> prev = node.prev;
+        Node<K> next = node.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        node.prev = null;
+        node.next = null;
+        size--;
+    }
+
+    /**
+     * Moves an already linked node to the tail of the deque.
+     */
+    void moveToLast(Node<K> node) {
+        if (node != tail) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    Node<K> peekFirst() {
+        return head;
+    }
+
+    Node<K> peekLast() {
+        return tail;
+    }
+
+    Node<K> pollFirst() {
+        Node<K> node = head;
+        if (node != null) {
+            remove(node);
+        }
+        return node;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Unlinks every node from the deque.
+     */
+    void clear() {
+        Node<K> node = head;
+        while (node != null) {
+            Node<K> next = node.next;
+            node.prev = null;
+            node.next = null;
+            node = next;
+        }
+        head = null;
+        tail = null;
+        size = 0;
+    }
+}
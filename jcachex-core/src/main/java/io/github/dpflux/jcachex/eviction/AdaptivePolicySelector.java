@@ -0,0 +1,356 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * An eviction strategy that picks the best of several candidate policies for
+ * the current workload and switches to it at runtime.
+ * <p>
+ * A fixed fraction of keys, chosen by hash, is sampled into one shadow cache
+ * per candidate policy. A shadow cache only tracks keys, is bounded to the
+ * same fraction of the cache's maximum size and runs its policy against the
+ * sampled keys. Only reads count as requests: a read of a key the shadow holds
+ * is a hit and any other read is a miss. Writes add keys to the shadows and
+ * reorder them but are not counted, so a put of a present key is not mistaken
+ * for a hit. At the end of every window of sampled reads, the hit rates of the
+ * shadows are compared, and if another policy beat the active one by a clear
+ * margin, the live cache switches to it.
+ * <p>
+ * The selector takes no lock of its own for the live cache, which keeps the
+ * lock-free read paths of policies such as SIEVE and S3-FIFO intact. The
+ * shadows are guarded by a lock that sampled operations only try to acquire;
+ * when another thread holds it, the sample is dropped rather than waited for.
+ * <p>
+ * Switching does not rebuild anything. The new policy starts empty and the
+ * old one is retained: every write or access moves its key from the old policy
+ * to the new one, and victims are taken from the old policy, which by then
+ * only holds entries that have not been used since the switch, until it runs
+ * out. No further switch happens until a migration is complete.
+ * <p>
+ * Shadow caches are not told about removals, so a key removed from the cache
+ * stays in the shadows until their own policies evict it. The statistics
+ * of the selector are included in {@link io.github.dpflux.jcachex.CacheStats}
+ * when it is the cache's eviction strategy.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class AdaptivePolicySelector<K, V> implements EvictionStrategy<K, V> {
+    private static final long MIN_SHADOW_SIZE = 256L;
+    private static final int MAX_SAMPLE_SHIFT = 6;
+    private static final long MIN_WINDOW_SIZE = 128L;
+    private static final double SWITCH_THRESHOLD = 0.01;
+
+    private final long maximumSize;
+    private final List<Shadow<K, V>> shadows = new ArrayList<>();
+    private final int sampleMask;
+    private final long windowSize;
+    private final ReentrantLock shadowLock = new ReentrantLock();
+    private volatile Shadow<K, V> activeShadow;
+    private volatile EvictionStrategy<K, V> active;
+    private volatile EvictionStrategy<K, V> previous;
+    private volatile long switchCount;
+    private long windowRequests;
+
+    /**
+     * A candidate policy simulated over the sampled keys.
+     */
+    private static final class Shadow<K, V> {
+        final String name;
+        final LongFunction<EvictionStrategy<K, V>> factory;
+        final EvictionStrategy<K, V> strategy;
+        final Set<K> resident = new HashSet<>();
+        final long capacity;
+        long hits;
+        long requests;
+        double hitRate;
+
+        Shadow(String name, LongFunction<EvictionStrategy<K, V>> factory, long capacity) {
+            this.name = name;
+            this.factory = factory;
+            this.strategy = factory.apply(capacity);
+            this.capacity = capacity;
+        }
+
+        void read(K key, CacheEntry<V> entry) {
+            requests++;
+            if (resident.contains(key)) {
+                hits++;
+                strategy.access(key, entry);
+            }
+        }
+
+        void write(K key, CacheEntry<V> entry) {
+            strategy.update(key, entry);
+            if (!resident.add(key)) {
+                return;
+            }
+            while (resident.size() > capacity) {
+                K victim = strategy.selectEvictionCandidate();
+                if (victim == null) {
+                    break;
+                }
+                strategy.remove(victim);
+                resident.remove(victim);
+            }
+        }
+
+        void endWindow() {
+            hitRate = requests == 0L ? 0.0 : (double) hits / requests;
+            hits = 0L;
+            requests = 0L;
+        }
+
+        void clear() {
+            strategy.clear();
+            resident.clear();
+            hits = 0L;
+            requests = 0L;
+        }
+    }
+
+    /**
+     * Creates a selector for a cache bounded to the given number of entries,
+     * choosing between the built-in policies whose operations take constant
+     * time, so that updating every shadow stays cheap: LRU, SIEVE, S3-FIFO, ARC
+     * and W-TinyLFU. The cache starts with LRU.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     */
+    public AdaptivePolicySelector(long maximumSize) {
+        this(maximumSize, defaultCandidates());
+    }
+
+    /**
+     * Creates a selector for a cache bounded to the given number of entries.
+     * Each candidate is created from its factory with the maximum size it has
+     * to hold, which is smaller for shadow caches than for the cache itself.
+     * The cache starts with the first candidate.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     * @param candidates  the candidate policies, by name, in order of preference
+     * @throws IllegalArgumentException if maximumSize is less than 1 or there
+     *                                  are no candidates
+     */
+    public AdaptivePolicySelector(long maximumSize, Map<String, LongFunction<EvictionStrategy<K, V>>> candidates) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be greater than 0");
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one candidate policy is required");
+        }
+        this.maximumSize = maximumSize;
+        int sampleShift = 0;
+        while (sampleShift < MAX_SAMPLE_SHIFT && (maximumSize >> (sampleShift + 1)) >= MIN_SHADOW_SIZE) {
+            sampleShift++;
+        }
+        this.sampleMask = (1 << sampleShift) - 1;
+        long shadowSize = Math.max(1L, maximumSize >> sampleShift);
+        this.windowSize = Math.max(MIN_WINDOW_SIZE, 8 * shadowSize);
+        candidates.forEach((name, factory) -> shadows.add(new Shadow<>(name, factory, shadowSize)));
+        this.activeShadow = shadows.get(0);
+        this.active = activeShadow.factory.apply(maximumSize);
+    }
+
+    @Override
+    public void update(K key, CacheEntry<V> entry) {
+        if (isSampled(key) && shadowLock.tryLock()) {
+            try {
+                for (Shadow<K, V> shadow : shadows) {
+                    shadow.write(key, entry);
+                }
+            } finally {
+                shadowLock.unlock();
+            }
+        }
+        track(key, entry, false);
+    }
+
+    @Override
+    public void access(K key, CacheEntry<V> entry) {
+        if (isSampled(key) && shadowLock.tryLock()) {
+            try {
+                for (Shadow<K, V> shadow : shadows) {
+                    shadow.read(key, entry);
+                }
+                countRead();
+            } finally {
+                shadowLock.unlock();
+            }
+        }
+        track(key, entry, true);
+    }
+
+    @Override
+    public void miss(K key) {
+        if (isSampled(key) && shadowLock.tryLock()) {
+            try {
+                for (Shadow<K, V> shadow : shadows) {
+                    shadow.read(key, null);
+                }
+                countRead();
+            } finally {
+                shadowLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        // The active policy is read first: a switch publishes the old policy as
+        // previous before it replaces the active one, so neither is missed
+        EvictionStrategy<K, V> current = active;
+        EvictionStrategy<K, V> old = previous;
+        if (old != null) {
+            old.remove(key);
+        }
+        current.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        shadowLock.lock();
+        try {
+            active.clear();
+            previous = null;
+            for (Shadow<K, V> shadow : shadows) {
+                shadow.clear();
+            }
+            windowRequests = 0L;
+        } finally {
+            shadowLock.unlock();
+        }
+    }
+
+    /**
+     * Selects a victim from the policy being migrated away from while it still
+     * holds entries, and from the active policy otherwise.
+     */
+    @Override
+    public K selectEvictionCandidate() {
+        EvictionStrategy<K, V> old = previous;
+        if (old != null) {
+            K candidate = old.selectEvictionCandidate();
+            if (candidate != null) {
+                return candidate;
+            }
+            shadowLock.lock();
+            try {
+                if (previous == old) {
+                    previous = null;
+                }
+            } finally {
+                shadowLock.unlock();
+            }
+        }
+        return active.selectEvictionCandidate();
+    }
+
+    @Override
+    public boolean admit(K candidate, K victim) {
+        return active.admit(candidate, victim);
+    }
+
+    /**
+     * Returns the name of the policy the cache currently evicts with.
+     */
+    public String activePolicy() {
+        return activeShadow.name;
+    }
+
+    /**
+     * Returns the number of times the cache switched to another policy.
+     */
+    public long switchCount() {
+        return switchCount;
+    }
+
+    /**
+     * Returns the hit rate of each candidate's shadow cache over the last
+     * complete window, by policy name. Rates are 0 until the first window ends.
+     */
+    public Map<String, Double> shadowHitRates() {
+        Map<String, Double> hitRates = new LinkedHashMap<>();
+        shadowLock.lock();
+        try {
+            for (Shadow<K, V> shadow : shadows) {
+                hitRates.put(shadow.name, shadow.hitRate);
+            }
+        } finally {
+            shadowLock.unlock();
+        }
+        return Collections.unmodifiableMap(hitRates);
+    }
+
+    /**
+     * Applies a write or read to the live policies, moving the key out of the
+     * policy being migrated away from.
+     */
+    private void track(K key, CacheEntry<V> entry, boolean read) {
+        EvictionStrategy<K, V> current = active;
+        EvictionStrategy<K, V> old = previous;
+        if (old != null) {
+            old.remove(key);
+        }
+        if (read) {
+            current.access(key, entry);
+        } else {
+            current.update(key, entry);
+        }
+        if (current != active) {
+            // A switch raced with this call and left the key in the old policy
+            current.remove(key);
+            active.update(key, entry);
+        }
+    }
+
+    private void countRead() {
+        if (++windowRequests >= windowSize) {
+            endWindow();
+        }
+    }
+
+    private boolean isSampled(K key) {
+        int h = key.hashCode() * 0x85ebca6b;
+        return ((h ^ (h >>> 16)) & sampleMask) == 0;
+    }
+
+    private void endWindow() {
+        windowRequests = 0L;
+        Shadow<K, V> best = activeShadow;
+        for (Shadow<K, V> shadow : shadows) {
+            shadow.endWindow();
+            if (shadow.hitRate > best.hitRate) {
+                best = shadow;
+            }
+        }
+        // Finish one migration before starting another, and ignore noise
+        if (previous == null && best != activeShadow && best.hitRate > activeShadow.hitRate + SWITCH_THRESHOLD) {
+            previous = active;
+            active = best.factory.apply(maximumSize);
+            activeShadow = best;
+            switchCount = switchCount + 1;
+        }
+    }
+
+    private static <K, V> Map<String, LongFunction<EvictionStrategy<K, V>>> defaultCandidates() {
+        Map<String, LongFunction<EvictionStrategy<K, V>>> candidates = new LinkedHashMap<>();
+        candidates.put("LRU", size -> new LRUEvictionStrategy<>());
+        candidates.put("SIEVE", size -> new SieveEvictionStrategy<>());
+        candidates.put("S3-FIFO", S3FifoEvictionStrategy::new);
+        candidates.put("ARC", ARCEvictionStrategy::new);
+        candidates.put("W-TinyLFU", WTinyLFUEvictionStrategy::new);
+        return candidates;
+    }
+}
@@ -4,7 +4,6 @@ import io.github.dpflux.jcachex.CacheEntry;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Composite eviction strategy that combines multiple strategies.
@@ -21,9 +20,9 @@ public class CompositeEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     }
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
+    public K selectEvictionCandidate() {
         for (EvictionStrategy<K, V> strategy : strategies) {
-            K candidate = strategy.selectEvictionCandidate(entries);
+            K candidate = strategy.selectEvictionCandidate();
             if (candidate != null) {
                 return candidate;
             }
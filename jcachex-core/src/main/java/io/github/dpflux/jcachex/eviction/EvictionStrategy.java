@@ -2,24 +2,39 @@ package io.github.dpflux.jcachex.eviction;
 
 import io.github.dpflux.jcachex.CacheEntry;
 
-import java.util.Map;
-
 /**
  * Interface for cache eviction strategies.
  * Implementations of this interface determine which entries should be evicted
- * from the cache.
+ * from the cache. A strategy owns whatever ordering it needs: it is told about
+ * every write through {@link #update}, every read through {@link #access} and
+ * {@link #miss}, and every removal through {@link #remove}, and must be able to
+ * name a victim without inspecting the cache contents.
  *
  * @param <K> the type of keys maintained by the cache
  * @param <V> the type of mapped values
  */
 public interface EvictionStrategy<K, V> {
     /**
-     * Selects a candidate for eviction from the given entries.
+     * Selects a candidate for eviction from the entries tracked by this strategy.
      *
-     * @param entries the current cache entries
      * @return the key of the entry to evict, or null if no candidate is found
      */
-    K selectEvictionCandidate(Map<K, CacheEntry<V>> entries);
+    K selectEvictionCandidate();
+
+    /**
+     * Decides whether a candidate entry should be kept at the expense of the
+     * given victim when the cache is over capacity. Strategies that filter
+     * admission consult this while selecting an eviction candidate on the write
+     * path, so a rejected candidate is evicted instead of the victim. The
+     * default implementation admits every candidate.
+     *
+     * @param candidate the key of the entry seeking admission
+     * @param victim    the key of the resident entry that would be evicted
+     * @return true if the candidate should displace the victim
+     */
+    default boolean admit(K candidate, K victim) {
+        return true;
+    }
 
     /**
      * Updates the strategy's state when an entry is accessed or modified.
@@ -29,6 +44,28 @@ public interface EvictionStrategy<K, V> {
      */
     void update(K key, CacheEntry<V> entry);
 
+    /**
+     * Updates the strategy's state when a resident entry is read. The cache
+     * buffers reads and replays them in batches, so this may lag behind the
+     * read itself. The default implementation treats a read like a write.
+     *
+     * @param key   the key of the entry
+     * @param entry the cache entry
+     */
+    default void access(K key, CacheEntry<V> entry) {
+        update(key, entry);
+    }
+
+    /**
+     * Records a read of a key that the cache does not hold. This is called on
+     * the reader's thread, so implementations must be cheap and thread-safe.
+     * The default implementation does nothing.
+     *
+     * @param key the key that was looked up
+     */
+    default void miss(K key) {
+    }
+
     /**
      * Removes an entry from the strategy's state.
      *
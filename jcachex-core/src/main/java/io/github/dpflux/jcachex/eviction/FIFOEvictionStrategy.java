@@ -18,11 +18,9 @@ public class FIFOEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     private final AtomicLong insertionCounter = new AtomicLong(0);
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
-        return entries.entrySet().stream()
-                .min((e1, e2) -> Long.compare(
-                        insertionOrder.getOrDefault(e1.getKey(), 0L),
-                        insertionOrder.getOrDefault(e2.getKey(), 0L)))
+    public K selectEvictionCandidate() {
+        return insertionOrder.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
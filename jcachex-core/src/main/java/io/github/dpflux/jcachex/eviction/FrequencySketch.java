@@ -0,0 +1,123 @@
+package io.github.dpflux.jcachex.eviction;
+
+import java.util.Arrays;
+
+/**
+ * A probabilistic, fixed-size estimator of how often keys have been seen.
+ * <p>
+ * This is a count-min sketch of depth four whose counters are 4 bits wide and
+ * packed sixteen to a {@code long}, so the table costs roughly eight bytes per
+ * cache entry regardless of how many distinct keys pass through it. Once the
+ * number of recorded increments reaches a sample size proportional to the
+ * cache capacity, every counter is halved so that the estimates age and stale
+ * popularity does not pin entries forever.
+ * <p>
+ * This class is not thread-safe; callers are expected to guard it with the
+ * lock of the owning strategy.
+ *
+ * @param <K> the type of keys maintained by the cache
+ */
+final class FrequencySketch<K> {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_FREQUENCY = 15;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Creates a sketch sized for a cache holding at most the given number of
+     * entries.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    FrequencySketch(long maximumSize) {
+        int capacity = (int) Math.max(1L, Math.min(maximumSize, MAX_TABLE_SIZE));
+        this.table = new long[ceilingPowerOfTwo(capacity)];
+        this.tableMask = table.length - 1;
+        this.sampleSize = capacity <= MAX_TABLE_SIZE / 10 ? 10 * capacity : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the key, up to a maximum
+     * of 15.
+     */
+    int frequency(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an occurrence of the key, aging all counters once the sample size
+     * is reached.
+     */
+    void increment(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Forgets every recorded occurrence.
+     */
+    void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves every counter. The odd counters lose their low bit, which is
+     * subtracted from the running size so the sample period stays accurate.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GreedyDual-Size-Frequency (GDSF) eviction strategy.
+ * <p>
+ * Each entry has a priority of {@code clock + frequency * cost / weight},
+ * where the frequency counts writes and accesses, the cost is the time the
+ * cache's loader took to produce the value and the weight comes from the
+ * cache's weigher. The entry with the lowest priority is evicted, and the
+ * clock is raised to the victim's priority so that entries which stop being
+ * used age out relative to those admitted or accessed later. In a weighted
+ * cache, large values that are cheap to reload therefore go first, while small
+ * values that are expensive to reload stay.
+ * <p>
+ * Values that were written directly rather than loaded have a cost of one
+ * nanosecond, so they are ranked by frequency and weight alone and give way to
+ * loaded values of the same weight. Entries are kept in an indexed binary heap,
+ * so updates, removals and victim selection take logarithmic time.
+ * <p>
+ * As the cache removes a selected entry right away, the clock is raised when
+ * the victim is selected, and the strategy keeps no state between selection
+ * and removal, so concurrent evictions cannot lose each other's inflation.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class GdsfEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private Node<K>[] heap = newHeap(16);
+    private int size;
+    private double clock;
+
+    private static final class Node<K> {
+        final K key;
+        long frequency;
+        double priority;
+        int index;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+
+    @Override
+    public synchronized void update(K key, CacheEntry<V> entry) {
+        Node<K> node = nodes.get(key);
+        boolean added = node == null;
+        if (added) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        }
+        node.frequency++;
+        long cost = entry != null ? Math.max(1L, entry.getLoadNanos()) : 1L;
+        long weight = entry != null ? Math.max(1L, entry.getWeight()) : 1L;
+        node.priority = clock + (double) node.frequency * cost / weight;
+        if (added) {
+            offer(node);
+        } else {
+            // A replaced value may be heavier or cheaper, so the priority can move either way
+            siftDown(node.index);
+            siftUp(node.index);
+        }
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            removeAt(node.index);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        clock = 0.0;
+    }
+
+    /**
+     * Selects the entry with the lowest priority and advances the clock to it.
+     */
+    @Override
+    public synchronized K selectEvictionCandidate() {
+        if (size == 0) {
+            return null;
+        }
+        Node<K> victim = heap[0];
+        clock = Math.max(clock, victim.priority);
+        return victim.key;
+    }
+
+    /**
+     * Returns the current value of the inflation clock.
+     */
+    synchronized double clock() {
+        return clock;
+    }
+
+    private void offer(Node<K> node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        node.index = size;
+        heap[size++] = node;
+        siftUp(node.index);
+    }
+
+    private void removeAt(int index) {
+        Node<K> last = heap[--size];
+        heap[size] = null;
+        if (index != size) {
+            heap[index] = last;
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Node<K> node = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].priority <= node.priority) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(node, index);
+    }
+
+    private void siftDown(int index) {
+        Node<K> node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < size && heap[right].priority < heap[child].priority) {
+                child = right;
+            }
+            if (node.priority <= heap[child].priority) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(node, index);
+    }
+
+    private void place(Node<K> node, int index) {
+        heap[index] = node;
+        node.index = index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Node<K>[] newHeap(int capacity) {
+        return (Node<K>[]) new Node<?>[capacity];
+    }
+}
@@ -17,11 +17,9 @@ public class LFUEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     private final ConcurrentHashMap<K, AtomicLong> accessCounts = new ConcurrentHashMap<>();
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
-        return entries.entrySet().stream()
-                .min((e1, e2) -> Long.compare(
-                        accessCounts.getOrDefault(e1.getKey(), new AtomicLong(Long.MIN_VALUE)).get(),
-                        accessCounts.getOrDefault(e2.getKey(), new AtomicLong(Long.MIN_VALUE)).get()))
+    public K selectEvictionCandidate() {
+        return accessCounts.entrySet().stream()
+                .min((e1, e2) -> Long.compare(e1.getValue().get(), e2.getValue().get()))
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
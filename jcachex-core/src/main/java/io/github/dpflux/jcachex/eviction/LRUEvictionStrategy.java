@@ -2,45 +2,48 @@ package io.github.dpflux.jcachex.eviction;
 
 import io.github.dpflux.jcachex.CacheEntry;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 /**
  * Least Recently Used (LRU) eviction strategy.
  * This strategy evicts the entry that was accessed least recently.
+ * <p>
+ * Keys are kept in an access-ordered {@link LinkedHashMap}, whose entries are
+ * themselves the links of the recency list, so promoting a key on access and
+ * selecting the eviction victim are both constant-time operations that hash
+ * the key once and allocate nothing beyond one map entry per key.
+ * <p>
+ * The key index is required because {@link #remove(Object)} is given only a
+ * key. The strategy is guarded by its own monitor; {@link io.github.dpflux.jcachex.DefaultCache}
+ * creates one per segment and replays reads into it in batches from its read
+ * buffers, so the monitor is not taken on the read path.
  *
  * @param <K> the type of keys maintained by the cache
  * @param <V> the type of mapped values
  */
 public class LRUEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
-    private final ConcurrentHashMap<K, Long> accessOrder = new ConcurrentHashMap<>();
-    private final AtomicLong accessCounter = new AtomicLong(0);
+    private final LinkedHashMap<K, Boolean> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
 
     @Override
-    public void update(K key, CacheEntry<V> entry) {
-        accessOrder.put(key, accessCounter.incrementAndGet());
+    public synchronized void update(K key, CacheEntry<V> entry) {
+        // A put of a present key counts as an access and moves it to the tail
+        accessOrder.put(key, Boolean.TRUE);
     }
 
     @Override
-    public void remove(K key) {
+    public synchronized void remove(K key) {
         accessOrder.remove(key);
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         accessOrder.clear();
-        accessCounter.set(0); // Reset counter when clearing
     }
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
-        return entries.entrySet().stream()
-                .min((e1, e2) -> Long.compare(
-                        accessOrder.getOrDefault(e1.getKey(), 0L), // Never-accessed entries get 0 (highest eviction
-                                                                   // priority)
-                        accessOrder.getOrDefault(e2.getKey(), 0L)))
-                .map(Map.Entry::getKey)
-                .orElse(null);
+    public synchronized K selectEvictionCandidate() {
+        Iterator<K> eldest = accessOrder.keySet().iterator();
+        return eldest.hasNext() ? eldest.next() : null;
     }
 }
@@ -18,11 +18,9 @@ public class MRUEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     private final AtomicLong accessCounter = new AtomicLong(0);
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
-        return entries.entrySet().stream()
-                .max((e1, e2) -> Long.compare(
-                        accessOrder.getOrDefault(e1.getKey(), Long.MIN_VALUE),
-                        accessOrder.getOrDefault(e2.getKey(), Long.MIN_VALUE)))
+    public K selectEvictionCandidate() {
+        return accessOrder.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
@@ -0,0 +1,177 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * S3-FIFO eviction strategy.
+ * <p>
+ * New entries enter a small probationary FIFO queue that holds about a tenth
+ * of the cache. Each entry carries a 2-bit access frequency, which an access
+ * raises up to a maximum of three. When an entry reaches the head of the small
+ * queue, it moves to the main FIFO queue if it was accessed while on
+ * probation; otherwise it is evicted and its key's hash is remembered in a
+ * bounded ghost queue. A new entry whose hash is still in the ghost queue was
+ * evicted too early, so it is inserted directly into the main queue. At the
+ * head of the main queue, an entry with a non-zero frequency is reinserted at
+ * the tail with its frequency decremented; otherwise it is evicted.
+ * <p>
+ * One-hit wonders and scans therefore pass through the small queue only, while
+ * entries with repeated accesses settle in the main queue. Every queue
+ * operation is constant time, and since an access only updates the entry's
+ * frequency, hits take no lock. The frequency is deliberately not volatile: a
+ * lost increment only costs the entry one reinsertion. Insertions, removals and
+ * victim selection are serialized on the strategy.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class S3FifoEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
+    private static final double SMALL_PERCENTAGE = 0.10;
+    private static final int MAX_FREQUENCY = 3;
+
+    private final ConcurrentHashMap<K, Node<K>> nodes = new ConcurrentHashMap<>();
+    private final AccessOrderDeque<K> small = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> main = new AccessOrderDeque<>();
+    private final GhostQueue ghost;
+    private final long maximumSmallSize;
+
+    private static final class Node<K> extends AccessOrderDeque.Node<K> {
+        int frequency;
+        boolean inMain;
+
+        Node(K key, boolean inMain) {
+            super(key);
+            this.inMain = inMain;
+        }
+    }
+
+    /**
+     * Creates an S3-FIFO strategy for a cache bounded to the given number of
+     * entries.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     */
+    public S3FifoEvictionStrategy(long maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be greater than 0");
+        }
+        this.maximumSmallSize = Math.max(1L, (long) (maximumSize * SMALL_PERCENTAGE));
+        this.ghost = new GhostQueue((int) Math.min(Integer.MAX_VALUE, Math.max(1L, maximumSize - maximumSmallSize)));
+    }
+
+    @Override
+    public void update(K key, CacheEntry<V> entry) {
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            if (node.frequency < MAX_FREQUENCY) {
+                node.frequency++;
+            }
+            return;
+        }
+        synchronized (this) {
+            if (!nodes.containsKey(key)) {
+                boolean remembered = ghost.remove(hash(key));
+                node = new Node<>(key, remembered);
+                (remembered ? main : small).addLast(node);
+                nodes.put(key, node);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            (node.inMain ? main : small).remove(node);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        small.clear();
+        main.clear();
+        ghost.clear();
+    }
+
+    /**
+     * Selects the entry to evict, promoting accessed entries out of the small
+     * queue and giving entries in the main queue another pass while their
+     * frequency lasts. A victim taken from the small queue is recorded in the
+     * ghost queue, as the cache removes the selected entry right away.
+     */
+    @Override
+    public synchronized K selectEvictionCandidate() {
+        if (small.size() >= maximumSmallSize || main.isEmpty()) {
+            Node<K> node;
+            while ((node = (Node<K>) small.peekFirst()) != null) {
+                if (node.frequency == 0) {
+                    ghost.add(hash(node.key));
+                    return node.key;
+                }
+                small.remove(node);
+                node.frequency = 0;
+                node.inMain = true;
+                main.addLast(node);
+            }
+        }
+
+        Node<K> node;
+        while ((node = (Node<K>) main.peekFirst()) != null) {
+            if (node.frequency == 0) {
+                return node.key;
+            }
+            node.frequency--;
+            main.moveToLast(node);
+        }
+        return null;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A bounded FIFO of the hashes of recently evicted keys. Hashes are kept in
+     * a ring, and a map from each hash to the position it was last added at
+     * answers membership in constant time. Distinct keys with equal hashes are
+     * indistinguishable, which only makes the ghost queue slightly generous.
+     */
+    private static final class GhostQueue {
+        private final int[] ring;
+        private final Map<Integer, Long> positions = new HashMap<>();
+        private long count;
+
+        GhostQueue(int capacity) {
+            this.ring = new int[capacity];
+        }
+
+        void add(int hash) {
+            int index = (int) (count % ring.length);
+            if (count >= ring.length) {
+                Integer oldest = ring[index];
+                Long position = positions.get(oldest);
+                if (position != null && position == count - ring.length) {
+                    positions.remove(oldest);
+                }
+            }
+            ring[index] = hash;
+            positions.put(hash, count++);
+        }
+
+        boolean remove(int hash) {
+            return positions.remove(hash) != null;
+        }
+
+        void clear() {
+            positions.clear();
+            count = 0;
+        }
+    }
+}
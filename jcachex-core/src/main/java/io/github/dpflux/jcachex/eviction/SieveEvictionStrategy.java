@@ -0,0 +1,89 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SIEVE eviction strategy.
+ * <p>
+ * Entries are kept in a FIFO queue in insertion order and are never reordered.
+ * An access only sets a visited bit on the entry's node. To select a victim, a
+ * hand sweeps the queue from the oldest entry towards the newest, clearing the
+ * visited bits it passes, and stops at the first entry that has not been
+ * visited since the hand last passed it. The hand keeps its position between
+ * evictions and wraps around to the oldest entry when it reaches the newest.
+ * <p>
+ * Because accesses neither take a lock nor write to a shared structure, hits
+ * are as cheap as a map lookup and a plain field write. The visited bit is
+ * deliberately not volatile: a sweep that misses a concurrent access only
+ * evicts an entry it would otherwise have given a second chance. Insertions,
+ * removals and sweeps are serialized on the strategy.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class SieveEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
+    private final ConcurrentHashMap<K, Node<K>> nodes = new ConcurrentHashMap<>();
+    private final AccessOrderDeque<K> queue = new AccessOrderDeque<>();
+    private Node<K> hand;
+
+    private static final class Node<K> extends AccessOrderDeque.Node<K> {
+        boolean visited;
+
+        Node(K key) {
+            super(key);
+        }
+    }
+
+    @Override
+    public void update(K key, CacheEntry<V> entry) {
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            node.visited = true;
+            return;
+        }
+        synchronized (this) {
+            if (!nodes.containsKey(key)) {
+                node = new Node<>(key);
+                queue.addLast(node);
+                nodes.put(key, node);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            if (node == hand) {
+                hand = (Node<K>) node.next;
+            }
+            queue.remove(node);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        queue.clear();
+        hand = null;
+    }
+
+    /**
+     * Sweeps the hand to the first entry that has not been visited, clearing
+     * visited bits on the way. The hand is left on the selected entry so that
+     * the sweep resumes from its successor once the entry is removed.
+     */
+    @Override
+    public synchronized K selectEvictionCandidate() {
+        Node<K> node = hand != null ? hand : (Node<K>) queue.peekFirst();
+        // Two laps always find a victim, even if accesses keep setting bits behind the hand
+        for (int i = 2 * queue.size(); node != null && node.visited && i > 0; i--) {
+            node.visited = false;
+            node = node.next != null ? (Node<K>) node.next : (Node<K>) queue.peekFirst();
+        }
+        hand = node;
+        return node != null ? node.key : null;
+    }
+}
@@ -23,15 +23,11 @@ public class TimeBasedEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     }
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
+    public K selectEvictionCandidate() {
         Instant now = Instant.now();
-        return entries.entrySet().stream()
-                .filter(e -> {
-                    Instant lastAccess = lastAccessTime.getOrDefault(e.getKey(), Instant.EPOCH);
-                    return Duration.between(lastAccess, now).compareTo(maxIdleTime) >= 0;
-                })
-                .max((e1, e2) -> lastAccessTime.getOrDefault(e1.getKey(), Instant.EPOCH)
-                        .compareTo(lastAccessTime.getOrDefault(e2.getKey(), Instant.EPOCH)))
+        return lastAccessTime.entrySet().stream()
+                .filter(e -> Duration.between(e.getValue(), now).compareTo(maxIdleTime) >= 0)
+                .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
@@ -0,0 +1,184 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.CacheEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Window TinyLFU (W-TinyLFU) eviction strategy.
+ * <p>
+ * New entries are admitted to a small LRU admission window. When the window
+ * overflows, its least recently used entry becomes a candidate for the main
+ * space, which is a segmented LRU made of a probation and a protected segment.
+ * While the main space has room the candidate simply moves into probation. Once
+ * it is full, the candidate only displaces the probation victim when a
+ * frequency sketch estimates it has been seen more often; otherwise the
+ * candidate itself is evicted. Only entries leaving the window take part in
+ * this duel, so an entry that was just written is never rejected, and entries
+ * demoted from the protected segment never compete with each other. This keeps
+ * scans and one-hit wonders from flushing hot entries while still letting new
+ * entries prove themselves in the window.
+ * <p>
+ * Popularity is tracked in a {@link FrequencySketch} with 4-bit counters that
+ * are periodically aged, so frequency state has a fixed cost of a few bytes per
+ * entry instead of one counter object per key.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ */
+public class WTinyLFUEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
+    private static final double WINDOW_PERCENTAGE = 0.01;
+    private static final double PROTECTED_PERCENTAGE = 0.80;
+
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final AccessOrderDeque<K> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K> protectedSegment = new AccessOrderDeque<>();
+    private final FrequencySketch<K> sketch;
+    private final long maximumWindowSize;
+    private final long maximumMainSize;
+    private final long maximumProtectedSize;
+
+    private enum Segment {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    private static final class Node<K> extends AccessOrderDeque.Node<K> {
+        Segment segment;
+
+        Node(K key, Segment segment) {
+            super(key);
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * Creates a W-TinyLFU strategy for a cache bounded to the given number of
+     * entries.
+     *
+     * @param maximumSize the maximum number of entries in the cache
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     */
+    public WTinyLFUEvictionStrategy(long maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be greater than 0");
+        }
+        this.sketch = new FrequencySketch<>(maximumSize);
+        this.maximumWindowSize = Math.max(1L, (long) (maximumSize * WINDOW_PERCENTAGE));
+        this.maximumMainSize = Math.max(1L, maximumSize - maximumWindowSize);
+        this.maximumProtectedSize = Math.max(1L, (long) (maximumMainSize * PROTECTED_PERCENTAGE));
+    }
+
+    @Override
+    public synchronized void update(K key, CacheEntry<V> entry) {
+        sketch.increment(key);
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key, Segment.WINDOW);
+            nodes.put(key, node);
+            window.addLast(node);
+            drainWindow();
+            return;
+        }
+
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.addLast(node);
+                if (protectedSegment.size() > maximumProtectedSize) {
+                    Node<K> demoted = (Node<K>) protectedSegment.pollFirst();
+                    demoted.segment = Segment.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protectedSegment.moveToLast(node);
+                break;
+        }
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            dequeOf(node).remove(node);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        nodes.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        sketch.clear();
+    }
+
+    /**
+     * Selects the entry to evict. When the window has overflowed into a full
+     * main space, the least recently used window entry (the candidate) competes
+     * against the least recently used entry of the main space (the victim) and
+     * the one with the lower estimated frequency loses. A candidate that wins
+     * moves into probation once the victim has been removed.
+     */
+    @Override
+    public synchronized K selectEvictionCandidate() {
+        drainWindow();
+        if (window.size() > maximumWindowSize) {
+            AccessOrderDeque.Node<K> candidate = window.peekFirst();
+            AccessOrderDeque.Node<K> victim = probation.isEmpty()
+                    ? protectedSegment.peekFirst() : probation.peekFirst();
+            if (victim == null) {
+                return candidate.key;
+            }
+            return admit(candidate.key, victim.key) ? victim.key : candidate.key;
+        }
+
+        AccessOrderDeque.Node<K> victim = probation.peekFirst();
+        if (victim == null) {
+            victim = protectedSegment.peekFirst();
+        }
+        if (victim == null) {
+            victim = window.peekFirst();
+        }
+        return victim != null ? victim.key : null;
+    }
+
+    /**
+     * Admits the candidate only if it is estimated to be used more often than
+     * the victim it would replace.
+     */
+    @Override
+    public synchronized boolean admit(K candidate, K victim) {
+        return sketch.frequency(candidate) > sketch.frequency(victim);
+    }
+
+    /**
+     * Moves entries that overflowed the window into probation for as long as
+     * the main space has room for them.
+     */
+    private void drainWindow() {
+        while (window.size() > maximumWindowSize
+                && probation.size() + protectedSegment.size() < maximumMainSize) {
+            Node<K> candidate = (Node<K>) window.pollFirst();
+            candidate.segment = Segment.PROBATION;
+            probation.addLast(candidate);
+        }
+    }
+
+    private AccessOrderDeque<K> dequeOf(Node<K> node) {
+        switch (node.segment) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedSegment;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.github.dpflux.jcachex.CacheEntry;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Weight-based eviction strategy.
@@ -14,6 +15,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class WeightBasedEvictionStrategy<K, V> implements EvictionStrategy<K, V> {
     private final ConcurrentHashMap<K, Long> weights = new ConcurrentHashMap<>();
+    private final LongAdder currentWeight = new LongAdder();
     private final long maxWeight;
 
     public WeightBasedEvictionStrategy(long maxWeight) {
@@ -21,32 +23,35 @@ public class WeightBasedEvictionStrategy<K, V> implements EvictionStrategy<K, V>
     }
 
     @Override
-    public K selectEvictionCandidate(Map<K, CacheEntry<V>> entries) {
-        return entries.entrySet().stream()
-                .max((e1, e2) -> Long.compare(
-                        weights.getOrDefault(e1.getKey(), 0L),
-                        weights.getOrDefault(e2.getKey(), 0L)))
+    public K selectEvictionCandidate() {
+        return weights.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse(null);
     }
 
     @Override
     public void update(K key, CacheEntry<V> entry) {
-        weights.put(key, entry.getWeight());
+        Long previous = weights.put(key, entry.getWeight());
+        currentWeight.add(previous != null ? entry.getWeight() - previous : entry.getWeight());
     }
 
     @Override
     public void remove(K key) {
-        weights.remove(key);
+        Long previous = weights.remove(key);
+        if (previous != null) {
+            currentWeight.add(-previous);
+        }
     }
 
     @Override
     public void clear() {
         weights.clear();
+        currentWeight.reset();
     }
 
     public long getCurrentWeight() {
-        return weights.values().stream().mapToLong(Long::longValue).sum();
+        return currentWeight.sum();
     }
 
     public boolean isOverWeight() {
@@ -0,0 +1,40 @@
+package io.github.dpflux.jcachex.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link Serializer} that uses Java object serialization.
+ *
+ * @param <T> the type of values converted by this serializer
+ */
+final class JavaSerializer<T extends Serializable> implements Serializer<T> {
+
+    @Override
+    public byte[] serialize(T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize value", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize value", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to deserialize value", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.dpflux.jcachex.serialization;
+
+import java.io.Serializable;
+
+/**
+ * Converts values to and from bytes so that the cache can store them outside
+ * the Java heap.
+ * <p>
+ * Implementations must be thread-safe, and {@link #deserialize} must accept
+ * every array produced by {@link #serialize}. Null values are never passed to
+ * a serializer.
+ *
+ * @param <T> the type of values converted by this serializer
+ */
+public interface Serializer<T> {
+
+    /**
+     * Converts a value to bytes.
+     *
+     * @param value the value to convert, never null
+     * @return the serialized form of the value
+     */
+    byte[] serialize(T value);
+
+    /**
+     * Converts bytes produced by {@link #serialize} back to a value.
+     *
+     * @param bytes the serialized form of a value
+     * @return the value
+     */
+    T deserialize(byte[] bytes);
+
+    /**
+     * Returns a serializer that encodes strings as UTF-8.
+     *
+     * @return the string serializer
+     */
+    static Serializer<String> strings() {
+        return StringSerializer.INSTANCE;
+    }
+
+    /**
+     * Returns a serializer that uses Java object serialization. It works for any
+     * {@link Serializable} value but is slower and produces larger output than
+     * a serializer written for the value type.
+     *
+     * @param <T> the type of values converted by the serializer
+     * @return the Java serialization serializer
+     */
+    static <T extends Serializable> Serializer<T> java() {
+        return new JavaSerializer<>();
+    }
+}
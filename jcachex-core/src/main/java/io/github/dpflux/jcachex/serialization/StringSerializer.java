@@ -0,0 +1,20 @@
+package io.github.dpflux.jcachex.serialization;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link Serializer} that encodes strings as UTF-8.
+ */
+enum StringSerializer implements Serializer<String> {
+    INSTANCE;
+
+    @Override
+    public byte[] serialize(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String deserialize(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +54,23 @@ class CacheStatsTest {
             assertEquals(1L, customStats.loadFailureCount());
             assertEquals(100L, customStats.totalLoadTime());
         }
+
+        @Test
+        @DisplayName("Custom constructor should wrap the provided counters")
+        @SuppressWarnings("deprecation")
+        void customConstructorShouldWrapProvidedCounters() {
+            AtomicLong hitCount = new AtomicLong();
+            CacheStats customStats = new CacheStats(
+                    hitCount, new AtomicLong(), new AtomicLong(),
+                    new AtomicLong(), new AtomicLong(), new AtomicLong());
+
+            customStats.recordHit();
+            hitCount.incrementAndGet();
+
+            assertEquals(2L, hitCount.get());
+            assertEquals(2L, customStats.hitCount());
+            assertSame(hitCount, customStats.getHitCount());
+        }
     }
 
     @Nested
@@ -215,6 +234,30 @@ class CacheStatsTest {
             assertEquals(0L, stats.loadFailureCount());
             assertEquals(0L, stats.totalLoadTime());
         }
+
+        @Test
+        @DisplayName("withPolicySelection should attach adaptive policy state")
+        void withPolicySelectionShouldAttachPolicyState() {
+            stats.recordHit();
+            Map<String, Double> hitRates = new LinkedHashMap<>();
+            hitRates.put("LRU", 0.25);
+            hitRates.put("LFU", 0.5);
+
+            CacheStats snapshot = stats.withPolicySelection("LFU", 1L, hitRates);
+            hitRates.clear();
+
+            assertNull(stats.activePolicy());
+            assertTrue(stats.shadowHitRates().isEmpty());
+            assertEquals(1L, snapshot.hitCount());
+            assertEquals("LFU", snapshot.activePolicy());
+            assertEquals(1L, snapshot.policySwitchCount());
+            assertEquals(0.5, snapshot.shadowHitRates().get("LFU"));
+            assertEquals(2, snapshot.shadowHitRates().size(), "Snapshot should copy the hit rates.");
+            assertTrue(snapshot.toString().contains("activePolicy=LFU"));
+            assertNotEquals(stats.snapshot(), snapshot);
+            snapshot.recordHit();
+            assertEquals(1L, stats.hitCount(), "Recording into a copy should not affect the original.");
+        }
     }
 
     @Nested
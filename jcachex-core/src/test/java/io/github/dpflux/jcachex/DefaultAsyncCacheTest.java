@@ -0,0 +1,116 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultAsyncCacheTest {
+
+    private DefaultAsyncCache<String, String> cache;
+    private AtomicInteger loadCount;
+    private CompletableFuture<String> pending;
+
+    @BeforeEach
+    void setUp() {
+        loadCount = new AtomicInteger();
+        pending = new CompletableFuture<>();
+        CacheConfig<String, String> config = CacheConfig.<String, String>builder()
+                .maximumSize(100L)
+                .asyncLoader(key -> {
+                    loadCount.incrementAndGet();
+                    return pending;
+                })
+                .build();
+        cache = new DefaultAsyncCache<>(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void testGetReturnsInFlightFutureWithoutBlocking() throws ExecutionException, InterruptedException {
+        CompletableFuture<String> first = cache.get("key1");
+        CompletableFuture<String> second = cache.get("key1");
+
+        assertFalse(first.isDone(), "Lookup should not wait for the loader");
+        assertSame(first, second, "Concurrent lookups should share the in-flight future");
+        assertSame(first, cache.getIfPresent("key1"));
+        assertEquals(1, loadCount.get());
+
+        pending.complete("value1");
+
+        assertEquals("value1", first.get());
+        assertEquals("value1", cache.synchronous().get("key1"));
+        assertEquals(1L, cache.size());
+        assertEquals(1L, cache.stats().loadCount());
+        assertEquals(1L, cache.stats().coalescedLoadCount());
+    }
+
+    @Test
+    void testFailedFutureIsRemoved() {
+        CompletableFuture<String> future = cache.get("key1");
+        pending.completeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(future.isCompletedExceptionally());
+        assertNull(cache.getIfPresent("key1"), "Failed load should not stay in the cache");
+        assertEquals(1L, cache.stats().loadFailureCount());
+
+        pending = new CompletableFuture<>();
+        pending.complete("value1");
+        assertEquals("value1", cache.get("key1").join());
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void testNullResultIsRecordedAsFailure() {
+        CompletableFuture<String> future = cache.get("key1");
+        pending.complete(null);
+
+        assertNull(future.join());
+        assertNull(cache.getIfPresent("key1"));
+        assertEquals(1L, cache.stats().loadFailureCount());
+        assertEquals(0L, cache.stats().loadCount());
+    }
+
+    @Test
+    void testPutFuture() {
+        CompletableFuture<String> value = new CompletableFuture<>();
+        cache.put("key1", value);
+
+        assertSame(value, cache.getIfPresent("key1"));
+        assertEquals(0L, cache.size());
+
+        value.complete("value1");
+
+        assertEquals("value1", cache.getIfPresent("key1").join());
+        assertEquals(1L, cache.size());
+        assertEquals(0, loadCount.get());
+    }
+
+    @Test
+    void testGetWithLoader() {
+        CompletableFuture<String> future = cache.get("key1", key -> CompletableFuture.completedFuture("custom_" + key));
+
+        assertEquals("custom_key1", future.join());
+        assertEquals("custom_key1", cache.get("key1").join());
+        assertEquals(0, loadCount.get());
+    }
+
+    @Test
+    void testRemoveInFlight() {
+        CompletableFuture<String> future = cache.get("key1");
+        cache.remove("key1");
+        pending.complete("value1");
+
+        assertEquals("value1", future.join());
+        assertEquals(0L, cache.size(), "Removed in-flight load should not be stored");
+    }
+}
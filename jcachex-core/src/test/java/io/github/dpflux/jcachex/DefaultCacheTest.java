@@ -2,16 +2,36 @@ package io.github.dpflux.jcachex;
 
 import io.github.dpflux.jcachex.eviction.EvictionStrategy;
 import io.github.dpflux.jcachex.eviction.LRUEvictionStrategy;
+import io.github.dpflux.jcachex.serialization.Serializer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,6 +122,91 @@ class DefaultCacheTest {
         expiringCache.close();
     }
 
+    @Test
+    void testExpirationWithFakeTicker() {
+        // Test that expiration follows the configured ticker rather than the wall clock
+        AtomicLong time = new AtomicLong();
+        CacheConfig<String, String> expiringConfig = CacheConfig.<String, String>builder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .ticker(time::get)
+                .build();
+        DefaultCache<String, String> expiringCache = new DefaultCache<>(expiringConfig);
+
+        expiringCache.put("key1", "value1");
+        time.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals("value1", expiringCache.get("key1"));
+
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertNull(expiringCache.get("key1"));
+        expiringCache.close();
+    }
+
+    @Test
+    void testExpirationListenerDoesNotBlockWriters() {
+        // Test that expiration listeners run after the maintenance lock is released
+        AtomicLong time = new AtomicLong();
+        AtomicReference<DefaultCache<String, String>> holder = new AtomicReference<>();
+        AtomicBoolean written = new AtomicBoolean();
+        EvictionRecorder listener = new EvictionRecorder() {
+            @Override
+            public void onExpire(String key, String value) {
+                CompletableFuture<Void> write = CompletableFuture.runAsync(() -> holder.get().put("other", "value"));
+                try {
+                    write.get(5, TimeUnit.SECONDS);
+                    written.set(true);
+                } catch (Exception e) {
+                    write.cancel(true);
+                }
+            }
+        };
+        DefaultCache<String, String> expiringCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .ticker(time::get)
+                .addListener(listener)
+                .build());
+        holder.set(expiringCache);
+
+        expiringCache.put("key1", "value1");
+        time.addAndGet(Duration.ofMinutes(2).toNanos());
+        expiringCache.put("key2", "value2");
+
+        assertTrue(written.get(), "A write from another thread should not wait for the listener");
+        expiringCache.close();
+    }
+
+    @Test
+    void testCachedTicker() throws InterruptedException {
+        Ticker ticker = Ticker.cachedTicker();
+        long start = ticker.read();
+        Thread.sleep(20);
+        assertTrue(ticker.read() > start, "Cached ticker should be refreshed in the background");
+    }
+
+    @Test
+    void testExpiredEntriesAreReclaimedWithoutReads() throws InterruptedException {
+        // Test that the timer wheel removes expired entries in the background
+        CacheConfig<String, String> expiringConfig = CacheConfig.<String, String>builder()
+                .expireAfterWrite(Duration.ofMillis(100))
+                .addListener(eventListener)
+                .build();
+        DefaultCache<String, String> expiringCache = new DefaultCache<>(expiringConfig);
+
+        expiringCache.put("key1", "value1");
+        expiringCache.put("key2", "value2");
+        assertEquals(2L, expiringCache.size());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (expiringCache.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0L, expiringCache.size());
+        // Listeners are notified after the entries are removed
+        verify(eventListener, timeout(1000).times(1)).onExpire("key1", "value1");
+        verify(eventListener, timeout(1000).times(1)).onExpire("key2", "value2");
+        expiringCache.close();
+    }
+
     @Test
     void testExpirationAfterAccess() throws InterruptedException {
         // Test expiration after access
@@ -119,6 +224,27 @@ class DefaultCacheTest {
         accessCache.close();
     }
 
+    @Test
+    void testExpireAfterAccessSlidesOnRead() {
+        // Test that reads extend the deadline of an entry that expires after access
+        AtomicLong time = new AtomicLong();
+        CacheConfig<String, String> accessConfig = CacheConfig.<String, String>builder()
+                .expireAfterAccess(Duration.ofMillis(300))
+                .ticker(time::get)
+                .build();
+        DefaultCache<String, String> accessCache = new DefaultCache<>(accessConfig);
+
+        accessCache.put("key1", "value1");
+        for (int i = 0; i < 10; i++) {
+            time.addAndGet(Duration.ofMillis(200).toNanos());
+            assertEquals("value1", accessCache.get("key1"), "Read entry should not expire");
+        }
+
+        time.addAndGet(Duration.ofMillis(301).toNanos());
+        assertNull(accessCache.get("key1"));
+        accessCache.close();
+    }
+
     @Test
     void testLoader() {
         // Test cache loader functionality
@@ -133,6 +259,141 @@ class DefaultCacheTest {
         loaderCache.close();
     }
 
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Test that concurrent misses for the same key invoke the loader once
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> slowLoader = key -> {
+            loadCount.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "loaded_" + key;
+        };
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            results.add(executor.submit(() -> cache.get("key1", slowLoader)));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.stats().coalescedLoadCount() < threadCount - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("loaded_key1", result.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, loadCount.get());
+        assertEquals(1L, cache.stats().loadCount());
+        assertEquals(threadCount - 1, cache.stats().coalescedLoadCount());
+        assertEquals("loaded_key1", cache.get("key1", slowLoader));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void testLoaderReturningNullIsRecordedAsFailure() {
+        // Test that a load producing no value counts as a failed load
+        assertNull(cache.get("key1", key -> null));
+
+        assertEquals(1L, cache.stats().loadFailureCount());
+        assertEquals(0L, cache.stats().loadCount());
+        assertFalse(cache.containsKey("key1"));
+    }
+
+    @Test
+    void testRemovalDuringLoadDiscardsLoadedValue() {
+        // Test that a value loaded before a removal is not stored after it
+        Function<String, String> loader = key -> {
+            cache.remove(key);
+            return "loaded_" + key;
+        };
+
+        assertEquals("loaded_key1", cache.get("key1", loader));
+        assertFalse(cache.containsKey("key1"));
+    }
+
+    @Test
+    void testGetAllWithBulkLoader() {
+        // Test that absent keys are fetched with one bulk loader call
+        List<Set<String>> requests = new ArrayList<>();
+        CacheConfig<String, String> bulkConfig = CacheConfig.<String, String>builder()
+                .bulkLoader(keys -> {
+                    requests.add(keys);
+                    Map<String, String> values = new HashMap<>();
+                    for (String key : keys) {
+                        if (!key.equals("missing")) {
+                            values.put(key, "loaded_" + key);
+                        }
+                    }
+                    return values;
+                })
+                .build();
+        DefaultCache<String, String> bulkCache = new DefaultCache<>(bulkConfig);
+        bulkCache.put("key1", "value1");
+
+        Map<String, String> result = bulkCache.getAll(Arrays.asList("key1", "key2", "key3", "missing"));
+
+        assertEquals(3, result.size());
+        assertEquals("value1", result.get("key1"));
+        assertEquals("loaded_key2", result.get("key2"));
+        assertEquals("loaded_key3", result.get("key3"));
+        assertEquals(1, requests.size());
+        assertEquals(new HashSet<>(Arrays.asList("key2", "key3", "missing")), requests.get(0));
+        assertEquals(1L, bulkCache.stats().loadCount());
+        assertEquals(1L, bulkCache.stats().hitCount());
+        assertEquals(3L, bulkCache.stats().missCount());
+        assertEquals("loaded_key2", bulkCache.get("key2"));
+        bulkCache.close();
+    }
+
+    @Test
+    void testPutAllAndInvalidateAll() {
+        // Test batched writes and removals
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("key1", "value1");
+        values.put("key2", "value2");
+        values.put("key3", "value3");
+        cache.putAll(values);
+
+        assertEquals(3L, cache.size());
+        verify(eventListener, times(1)).onPut("key2", "value2");
+
+        cache.invalidateAll(Arrays.asList("key1", "key3"));
+
+        assertEquals(1L, cache.size());
+        assertEquals("value2", cache.get("key2"));
+        verify(eventListener, times(1)).onRemove("key1", "value1");
+        verify(eventListener, times(1)).onRemove("key3", "value3");
+    }
+
+    @Test
+    void testPutAllEvictsToMaximumSize() {
+        // Test that a batch larger than the free space is evicted back under the limit
+        CacheConfig<String, String> sizeConfig = CacheConfig.<String, String>builder()
+                .maximumSize(2L)
+                .build();
+        DefaultCache<String, String> sizeCache = new DefaultCache<>(sizeConfig);
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            values.put("key" + i, "value" + i);
+        }
+
+        sizeCache.putAll(values);
+
+        assertEquals(2L, sizeCache.size());
+        assertEquals(3L, sizeCache.stats().evictionCount());
+        sizeCache.close();
+    }
+
     @Test
     void testAsyncLoader() throws ExecutionException, InterruptedException {
         // Test async loader functionality
@@ -180,6 +441,555 @@ class DefaultCacheTest {
         weightCache.close();
     }
 
+    @Test
+    void testWeightLimitEvictsUntilUnderLimit() {
+        // Test that one heavy entry evicts as many entries as needed
+        CacheConfig<String, String> weightConfig = CacheConfig.<String, String>builder()
+                .maximumWeight(10L)
+                .weigher((key, value) -> (long) value.length())
+                .build();
+        DefaultCache<String, String> weightCache = new DefaultCache<>(weightConfig);
+
+        weightCache.put("key1", "aaa"); // weight: 3
+        weightCache.put("key2", "bbb"); // weight: 3
+        weightCache.put("key3", "ccc"); // weight: 3
+        weightCache.put("key3", "cc"); // replaced, weight: 2
+        weightCache.put("key4", "ddddddddd"); // weight: 9
+
+        assertEquals(1L, weightCache.size());
+        assertTrue(weightCache.containsKey("key4"));
+        assertEquals(3L, weightCache.stats().evictionCount());
+
+        weightCache.remove("key4");
+        weightCache.put("key5", "eeeee"); // weight: 5
+        weightCache.put("key6", "fffff"); // weight: 5
+        assertEquals(2L, weightCache.size(), "Removed weight should be released");
+        weightCache.close();
+    }
+
+    @Test
+    void testOffHeapStorage() {
+        // Test that values stored off the heap are weighed by their serialized size
+        CacheConfig<String, String> offHeapConfig = CacheConfig.<String, String>builder()
+                .offHeap(true)
+                .valueSerializer(Serializer.strings())
+                .offHeapSlabSize(64)
+                .maximumWeight(20L)
+                .addListener(eventListener)
+                .build();
+        DefaultCache<String, String> offHeapCache = new DefaultCache<>(offHeapConfig);
+
+        offHeapCache.put("key1", "0123456789");
+        offHeapCache.put("key2", "abcdefghij");
+        offHeapCache.put("key3", "ABCDEFGHIJ");
+
+        assertEquals(2L, offHeapCache.size(), "Entries over the byte limit should be evicted");
+        verify(eventListener).onEvict("key1", "0123456789", EvictionReason.WEIGHT);
+        assertEquals("abcdefghij", offHeapCache.get("key2"));
+        assertEquals("ABCDEFGHIJ", offHeapCache.get("key3"));
+
+        offHeapCache.put("key2", "replaced");
+        verify(eventListener).onRemove("key2", "abcdefghij");
+        assertEquals("replaced", offHeapCache.remove("key2"));
+        assertNull(offHeapCache.get("key2"));
+        offHeapCache.close();
+    }
+
+    @Test
+    void testDiskPromotionDoesNotOverwriteConcurrentPut(@TempDir Path directory) {
+        // Test that a put landing while a value is read back from disk is kept
+        AtomicReference<DefaultCache<String, String>> cacheRef = new AtomicReference<>();
+        AtomicBoolean armed = new AtomicBoolean();
+        Serializer<String> strings = Serializer.strings();
+        Serializer<String> racing = new Serializer<String>() {
+            @Override
+            public byte[] serialize(String value) {
+                return strings.serialize(value);
+            }
+
+            @Override
+            public String deserialize(byte[] bytes) {
+                if (armed.getAndSet(false)) {
+                    cacheRef.get().put("key1", "newer");
+                }
+                return strings.deserialize(bytes);
+            }
+        };
+        CacheConfig<String, String> diskConfig = CacheConfig.<String, String>builder()
+                .maximumSize(2L)
+                .directory(directory.toString())
+                .diskTier(true)
+                .valueSerializer(racing)
+                .diskSegmentSize(4096)
+                .build();
+        DefaultCache<String, String> diskCache = new DefaultCache<>(diskConfig);
+        cacheRef.set(diskCache);
+        diskCache.put("key1", "value1");
+        diskCache.put("key2", "value2");
+        diskCache.put("key3", "value3");
+        assertFalse(diskCache.containsKey("key1"), "Evicted entry should leave memory");
+
+        armed.set(true);
+        diskCache.get("key1");
+
+        assertEquals("newer", diskCache.get("key1"), "Promotion should not overwrite a newer write");
+        diskCache.close();
+    }
+
+    @Test
+    void testSpillRacingWithPutDoesNotResurrectValue(@TempDir Path directory) {
+        // Test that a value written back while its old value is spilled is not shadowed by the disk copy
+        AtomicReference<DefaultCache<String, String>> cacheRef = new AtomicReference<>();
+        AtomicBoolean armed = new AtomicBoolean();
+        Serializer<String> strings = Serializer.strings();
+        Serializer<String> racing = new Serializer<String>() {
+            @Override
+            public byte[] serialize(String value) {
+                if ("value1".equals(value) && armed.getAndSet(false)) {
+                    cacheRef.get().put("key1", "newer");
+                }
+                return strings.serialize(value);
+            }
+
+            @Override
+            public String deserialize(byte[] bytes) {
+                return strings.deserialize(bytes);
+            }
+        };
+        DefaultCache<String, String> diskCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .maximumSize(2L)
+                .directory(directory.toString())
+                .diskTier(true)
+                .valueSerializer(racing)
+                .diskSegmentSize(4096)
+                .build());
+        cacheRef.set(diskCache);
+        diskCache.put("key1", "value1");
+        diskCache.put("key2", "value2");
+        armed.set(true);
+        diskCache.put("key3", "value3");
+
+        assertEquals("newer", diskCache.remove("key1"));
+        assertNull(diskCache.get("key1"), "A removed key should not come back from disk");
+        diskCache.close();
+    }
+
+    @Test
+    void testDiskTierConfig(@TempDir Path directory) {
+        CacheConfig<String, String> directoryOnly = CacheConfig.<String, String>builder()
+                .directory(directory.toString())
+                .build();
+        assertFalse(directoryOnly.isDiskTier());
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .directory(directory.toString())
+                .diskTier(true)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .diskTier(true)
+                .valueSerializer(Serializer.strings())
+                .build());
+    }
+
+    @Test
+    void testOffHeapReadsRacingReplacementsAreHits() throws Exception {
+        // Test that a read whose value is freed by a concurrent replace looks the key up again
+        CacheConfig<String, String> offHeapConfig = CacheConfig.<String, String>builder()
+                .offHeap(true)
+                .valueSerializer(Serializer.strings())
+                .offHeapSlabSize(256)
+                .build();
+        DefaultCache<String, String> offHeapCache = new DefaultCache<>(offHeapConfig);
+        offHeapCache.put("key", "value0");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 1; running.get(); i++) {
+                offHeapCache.put("key", "value" + i);
+            }
+        });
+        writer.start();
+        int nulls = 0;
+        try {
+            for (int i = 0; i < 500_000; i++) {
+                if (offHeapCache.get("key") == null) {
+                    nulls++;
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        assertEquals(0, nulls, "A key that is always present should never read as null");
+        assertEquals(0L, offHeapCache.stats().missCount());
+        offHeapCache.close();
+    }
+
+    @Test
+    void testDiskTierSpillsAndPromotes(@TempDir Path directory) {
+        // Test that evicted entries are served from disk without reloading
+        AtomicInteger loads = new AtomicInteger();
+        CacheConfig<String, String> diskConfig = CacheConfig.<String, String>builder()
+                .maximumSize(2L)
+                .directory(directory.toString())
+                .diskTier(true)
+                .valueSerializer(Serializer.strings())
+                .diskSegmentSize(4096)
+                .loader(key -> {
+                    loads.incrementAndGet();
+                    return "loaded_" + key;
+                })
+                .build();
+        DefaultCache<String, String> diskCache = new DefaultCache<>(diskConfig);
+
+        diskCache.put("key1", "value1");
+        diskCache.put("key2", "value2");
+        diskCache.put("key3", "value3");
+        assertFalse(diskCache.containsKey("key1"), "Evicted entry should leave memory");
+
+        assertEquals("value1", diskCache.get("key1"));
+        assertTrue(diskCache.containsKey("key1"), "Disk hit should be promoted to memory");
+        assertEquals(0, loads.get());
+        assertEquals(1L, diskCache.stats().hitCount());
+
+        diskCache.put("key4", "value4");
+        diskCache.put("key2", "replaced");
+        assertEquals("replaced", diskCache.get("key2"), "Writes should supersede the disk copy");
+        diskCache.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshotAndRestore(@TempDir Path directory) {
+        // Test that a snapshot restores values, deadlines and eviction order without listeners
+        CacheConfig<String, String> snapshotConfig = CacheConfig.<String, String>builder()
+                .maximumSize(3L)
+                .expireAfterWrite(Duration.ofHours(1))
+                .keySerializer(Serializer.strings())
+                .valueSerializer(Serializer.strings())
+                .addListener(eventListener)
+                .build();
+        DefaultCache<String, String> source = new DefaultCache<>(snapshotConfig);
+        source.put("key1", "value1");
+        source.put("key2", "value2");
+        source.put("key3", "value3");
+        source.get("key1");
+        Path file = directory.resolve("cache.bin");
+        source.snapshot(file);
+        source.close();
+        clearInvocations(eventListener);
+
+        DefaultCache<String, String> restored = new DefaultCache<>(snapshotConfig);
+        assertEquals(3, restored.restore(file));
+        verifyNoInteractions(eventListener);
+        assertEquals(3L, restored.size());
+        assertEquals("value1", restored.get("key1"));
+
+        restored.put("key4", "value4");
+        assertFalse(restored.containsKey("key2"), "Coldest entry should be evicted first after restore");
+        assertTrue(restored.containsKey("key1"));
+        restored.close();
+    }
+
+    @Test
+    void testRestoreTrimsToCapacitySilently(@TempDir Path directory) {
+        // Test that restoring into a smaller cache drops the coldest entries without notifying listeners
+        CacheConfig.Builder<String, String> builder = CacheConfig.<String, String>builder()
+                .keySerializer(Serializer.strings())
+                .valueSerializer(Serializer.strings());
+        DefaultCache<String, String> source = new DefaultCache<>(builder.maximumSize(3L).build());
+        source.put("key1", "value1");
+        source.put("key2", "value2");
+        source.put("key3", "value3");
+        Path file = directory.resolve("cache.bin");
+        source.snapshot(file);
+        source.close();
+
+        EvictionRecorder evictions = new EvictionRecorder();
+        DefaultCache<String, String> restored = new DefaultCache<>(builder.maximumSize(2L).addListener(evictions).build());
+        assertEquals(3, restored.restore(file));
+
+        assertEquals(2L, restored.size());
+        assertFalse(restored.containsKey("key1"), "Coldest entry should be dropped");
+        assertTrue(evictions.events.isEmpty(), "Trimming a restore should not notify listeners");
+        assertEquals(0L, restored.stats().evictionCount());
+        restored.close();
+    }
+
+    @Test
+    void testSnapshotOnClose(@TempDir Path directory) {
+        // Test that a cache with a directory and serializers survives a restart
+        CacheConfig<String, String> snapshotConfig = CacheConfig.<String, String>builder()
+                .directory(directory.toString())
+                .keySerializer(Serializer.strings())
+                .valueSerializer(Serializer.strings())
+                .build();
+        DefaultCache<String, String> first = new DefaultCache<>(snapshotConfig);
+        first.put("key1", "value1");
+        first.put("key2", "value2");
+        first.close();
+
+        DefaultCache<String, String> second = new DefaultCache<>(snapshotConfig);
+        assertEquals("value1", second.get("key1"));
+        assertEquals("value2", second.get("key2"));
+        assertEquals(0L, second.stats().loadCount());
+        second.close();
+    }
+
+    @Test
+    void testSnapshotRequiresSerializers(@TempDir Path directory) {
+        assertThrows(IllegalStateException.class, () -> cache.snapshot(directory.resolve("cache.bin")));
+    }
+
+    @Test
+    void testOffHeapRequiresSerializer() {
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .offHeap(true)
+                .build());
+    }
+
+    @Test
+    void testAsynchronousListenerDispatch() throws InterruptedException {
+        ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+        List<CacheEvent<String, String>> received = new ArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(3);
+        CacheEventListener<String, String> batchListener = new EvictionRecorder() {
+            @Override
+            public void onEvents(List<CacheEvent<String, String>> events) {
+                received.addAll(events);
+                events.forEach(event -> delivered.countDown());
+            }
+        };
+        DefaultCache<String, String> asyncCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .addListener(batchListener)
+                .listenerExecutor(listenerExecutor)
+                .build());
+
+        asyncCache.put("key1", "value1");
+        asyncCache.put("key1", "value2");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(CacheEvent.Type.PUT, received.get(0).getType());
+        assertEquals(CacheEvent.Type.REMOVE, received.get(1).getType());
+        assertEquals("value1", received.get(1).getValue());
+        assertEquals("value2", received.get(2).getValue());
+        asyncCache.close();
+        listenerExecutor.shutdown();
+    }
+
+    @Test
+    void testSegmentedCache() {
+        DefaultCache<String, String> segmented = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .segmented(true)
+                .concurrencyLevel(4)
+                .initialCapacity(64)
+                .maximumSize(40L)
+                .build());
+        for (int i = 0; i < 200; i++) {
+            segmented.put("key" + i, "value" + i);
+        }
+
+        // Each of the four segments holds at most a quarter of the maximum size
+        assertTrue(segmented.size() <= 40L, "Size was " + segmented.size());
+        assertTrue(segmented.size() >= 30L, "Size was " + segmented.size());
+        assertEquals(segmented.size(), segmented.keys().size());
+        assertEquals(segmented.size(), segmented.entries().size());
+        assertEquals("value199", segmented.get("key199"));
+        assertEquals(200L - segmented.size(), segmented.stats().evictionCount());
+
+        segmented.clear();
+        assertEquals(0L, segmented.size());
+        segmented.close();
+    }
+
+    @Test
+    void testSegmentedCacheCreatesStrategyPerSegment() {
+        AtomicInteger created = new AtomicInteger();
+        DefaultCache<String, String> segmented = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .segmented(true)
+                .concurrencyLevel(3)
+                .maximumSize(8L)
+                .evictionStrategySupplier(() -> {
+                    created.incrementAndGet();
+                    return new LRUEvictionStrategy<>();
+                })
+                .build());
+
+        assertEquals(4, created.get(), "Segment count should round up to a power of two");
+        segmented.put("key1", "value1");
+        assertEquals("value1", segmented.get("key1"));
+        segmented.close();
+
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .segmented(true)
+                .evictionStrategy(new LRUEvictionStrategy<>())
+                .build());
+    }
+
+    @Test
+    void testWeakKeysCompareByIdentity() {
+        DefaultCache<String, String> weakCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .weakKeys(true)
+                .build());
+        String key = new String("key1");
+        weakCache.put(key, "value1");
+
+        assertEquals("value1", weakCache.get(key));
+        assertNull(weakCache.get(new String("key1")), "An equal but distinct key should not match");
+        assertTrue(weakCache.containsKey(key));
+        assertEquals(1, weakCache.keys().size());
+        assertSame(key, weakCache.keys().iterator().next());
+
+        weakCache.put(key, "value2");
+        assertEquals(1L, weakCache.size());
+        assertEquals("value2", weakCache.remove(key));
+        assertEquals(0L, weakCache.size());
+        weakCache.close();
+    }
+
+    @Test
+    void testCollectedKeysAreEvicted() throws InterruptedException {
+        // A mock listener would keep the arguments of every call reachable
+        EvictionRecorder evictions = new EvictionRecorder();
+        DefaultCache<String, String> weakCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .weakKeys(true)
+                .addListener(evictions)
+                .build());
+        weakCache.put(new String("key1"), "value1");
+        String other = "other";
+
+        for (int i = 0; i < 50 && weakCache.size() > 0L; i++) {
+            System.gc();
+            Thread.sleep(10);
+            // Writes drain the reference queue
+            weakCache.put(other, "value2");
+            weakCache.remove(other);
+        }
+
+        assertEquals(0L, weakCache.size());
+        assertEquals(1L, weakCache.stats().evictionCount());
+        assertTrue(evictions.events.isEmpty(), "Listeners should not see an entry without its key");
+        weakCache.close();
+    }
+
+    @Test
+    void testWeakKeyLoadsAreCoalescedByIdentity() throws Exception {
+        // Test that a load of one key does not block a load of an equal but distinct weak key
+        String first = new String("key");
+        String second = new String("key");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DefaultCache<String, String> weakCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .weakKeys(true)
+                .loader(key -> {
+                    if (key == first) {
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "first";
+                    }
+                    return "second";
+                })
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> firstLoad = executor.submit(() -> weakCache.get(first));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> secondLoad = executor.submit(() -> weakCache.get(second));
+
+            assertEquals("second", secondLoad.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertEquals("first", firstLoad.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            weakCache.close();
+        }
+    }
+
+    @Test
+    void testCollectedValuesAreEvicted() throws InterruptedException {
+        EvictionRecorder evictions = new EvictionRecorder();
+        DefaultCache<String, String> weakCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .weakValues(true)
+                .addListener(evictions)
+                .build());
+        weakCache.put("key1", new String("value1"));
+
+        for (int i = 0; i < 50 && weakCache.get("key1") != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(weakCache.get("key1"));
+        assertEquals(0L, weakCache.size());
+        assertEquals(1L, weakCache.stats().evictionCount());
+        assertTrue(evictions.events.isEmpty(), "Listeners should not see an entry without its value");
+        weakCache.close();
+    }
+
+    private static class EvictionRecorder implements CacheEventListener<String, String> {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onEvict(String key, String value, EvictionReason reason) {
+            events.add(key + "=" + value + " " + reason);
+        }
+
+        @Override
+        public void onPut(String key, String value) {
+        }
+
+        @Override
+        public void onRemove(String key, String value) {
+        }
+
+        @Override
+        public void onExpire(String key, String value) {
+        }
+
+        @Override
+        public void onLoad(String key, String value) {
+        }
+
+        @Override
+        public void onLoadError(String key, Throwable error) {
+        }
+
+        @Override
+        public void onClear() {
+        }
+    }
+
+    @Test
+    void testSoftValues() {
+        DefaultCache<String, String> softCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .softValues(true)
+                .build());
+        String value = new String("value1");
+        softCache.put("key1", value);
+
+        assertSame(value, softCache.get("key1"));
+        assertEquals(Arrays.asList(value), new ArrayList<>(softCache.values()));
+        softCache.close();
+    }
+
+    @Test
+    void testInvalidReferenceConfig() {
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .weakValues(true)
+                .softValues(true)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .offHeap(true)
+                .valueSerializer(Serializer.strings())
+                .weakKeys(true)
+                .build());
+    }
+
     @Test
     void testAsyncOperations() throws ExecutionException, InterruptedException {
         // Test async operations
@@ -204,9 +1014,9 @@ class DefaultCacheTest {
         cache.get("key2"); // Miss
 
         CacheStats stats = cache.stats();
-        assertEquals(1L, stats.getHitCount().get());
-        assertEquals(1L, stats.getMissCount().get());
-        assertEquals(0L, stats.getLoadCount().get());
+        assertEquals(1L, stats.hitCount());
+        assertEquals(1L, stats.missCount());
+        assertEquals(0L, stats.loadCount());
     }
 
     @Test
@@ -234,6 +1044,76 @@ class DefaultCacheTest {
         refreshCache.close();
     }
 
+    @Test
+    void testRefreshServesStaleValueAndReloadsOnce() {
+        AtomicLong time = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> refreshes = new ArrayList<>();
+        DefaultCache<String, String> refreshCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .refreshAfterWrite(Duration.ofMinutes(1))
+                .loader(key -> key + "_" + loads.incrementAndGet())
+                .refreshExecutor(refreshes::add)
+                .ticker(time::get)
+                .build());
+
+        assertEquals("key1_1", refreshCache.get("key1"));
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals("key1_1", refreshCache.get("key1"));
+        assertTrue(refreshes.isEmpty(), "Nothing is due before the refresh deadline");
+
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("key1_1", refreshCache.get("key1"), "A due read should return the current value");
+        assertEquals("key1_1", refreshCache.get("key1"));
+        assertEquals(1, refreshes.size(), "Reads during a pending refresh should not start another");
+
+        refreshes.remove(0).run();
+        assertEquals("key1_2", refreshCache.get("key1"));
+        assertEquals(2L, refreshCache.stats().loadCount());
+
+        time.addAndGet(Duration.ofSeconds(61).toNanos());
+        refreshCache.get("key1");
+        assertEquals(1, refreshes.size(), "A refreshed entry should become due again");
+        refreshCache.close();
+    }
+
+    @Test
+    void testRefreshUsesReloadHook() {
+        AtomicLong time = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        CacheLoader<String, String> conditionalLoader = new CacheLoader<String, String>() {
+            @Override
+            public String apply(String key) {
+                return "loaded";
+            }
+
+            @Override
+            public String reload(String key, String oldValue) {
+                return oldValue + "+";
+            }
+        };
+        DefaultCache<String, String> refreshCache = new DefaultCache<>(CacheConfig.<String, String>builder()
+                .refreshAfterWrite(Duration.ofMinutes(1))
+                .loader(conditionalLoader)
+                .refreshExecutor(refreshes::add)
+                .ticker(time::get)
+                .build());
+
+        refreshCache.put("key1", "value1");
+        refreshCache.put("key2", "value2");
+        time.addAndGet(Duration.ofMinutes(2).toNanos());
+        refreshCache.get("key1");
+        refreshCache.get("key2");
+        assertEquals(2, refreshes.size());
+
+        // A write during the reload wins over the reloaded value
+        refreshCache.put("key2", "written");
+        refreshes.forEach(Runnable::run);
+
+        assertEquals("value1+", refreshCache.get("key1"));
+        assertEquals("written", refreshCache.get("key2"));
+        refreshCache.close();
+    }
+
     @Test
     void testEviction() {
         // Test eviction strategy
@@ -253,6 +1133,40 @@ class DefaultCacheTest {
         evictionCache.close();
     }
 
+    @Test
+    void testBufferedReadsUpdateEvictionOrder() throws InterruptedException {
+        // Test that concurrent hits are replayed to the eviction strategy before evicting
+        CacheConfig<String, String> evictionConfig = CacheConfig.<String, String>builder()
+                .maximumSize(3L)
+                .evictionStrategy(new LRUEvictionStrategy<>())
+                .build();
+        DefaultCache<String, String> evictionCache = new DefaultCache<>(evictionConfig);
+        evictionCache.put("key1", "value1");
+        evictionCache.put("key2", "value2");
+        evictionCache.put("key3", "value3");
+
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    evictionCache.get("key1");
+                    evictionCache.get("key2");
+                }
+            });
+            readers[i].start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        evictionCache.put("key4", "value4");
+
+        assertEquals(3L, evictionCache.size());
+        assertFalse(evictionCache.containsKey("key3")); // Least recently read
+        assertEquals(800L, evictionCache.stats().hitCount());
+        evictionCache.close();
+    }
+
     @Test
     void testConcurrentAccess() throws InterruptedException {
         // Test concurrent access
@@ -306,6 +1220,13 @@ class DefaultCacheTest {
                     .expireAfterWrite(Duration.ofMillis(-1))
                     .build();
         }, "Should throw IllegalArgumentException for negative expiration duration");
+
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .initialCapacity(-1)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> CacheConfig.<String, String>builder()
+                .concurrencyLevel(0)
+                .build());
     }
 
     @Test
@@ -0,0 +1,104 @@
+package io.github.dpflux.jcachex;
+
+import io.github.dpflux.jcachex.serialization.Serializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private DiskStore<String, String> store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void testPutAndRemove() {
+        store = new DiskStore<>(directory, Serializer.strings(), 1024, Long.MAX_VALUE);
+        assertTrue(store.put("key1", "value1", 1234L));
+
+        assertTrue(store.containsKey("key1"));
+        DiskStore.Record<String> record = store.remove("key1");
+        assertEquals("value1", record.value);
+        assertEquals(1234L, record.expiresAtMillis);
+        assertNull(store.remove("key1"));
+        assertEquals(0L, store.size());
+    }
+
+    @Test
+    void testReplaceAndInvalidate() {
+        store = new DiskStore<>(directory, Serializer.strings(), 1024, Long.MAX_VALUE);
+        store.put("key1", "value1", Long.MAX_VALUE);
+        store.put("key1", "value2", Long.MAX_VALUE);
+        store.put("key2", "value3", Long.MAX_VALUE);
+        store.invalidate("key2");
+
+        assertEquals("value2", store.remove("key1").value);
+        assertFalse(store.containsKey("key2"));
+    }
+
+    @Test
+    void testValueLargerThanSegmentIsNotStored() {
+        store = new DiskStore<>(directory, Serializer.strings(), 16, Long.MAX_VALUE);
+        assertFalse(store.put("key1", "a value that does not fit", Long.MAX_VALUE));
+        assertFalse(store.containsKey("key1"));
+    }
+
+    @Test
+    void testCompactionDeletesDeadSegments() throws IOException {
+        store = new DiskStore<>(directory, Serializer.strings(), 64, Long.MAX_VALUE);
+        for (int i = 0; i < 20; i++) {
+            store.put("key" + i, "value" + i, Long.MAX_VALUE);
+        }
+        int segments = store.segmentCount();
+        for (int i = 1; i < 20; i++) {
+            store.invalidate("key" + i);
+        }
+
+        store.compact();
+
+        assertTrue(store.segmentCount() < segments, "Mostly dead segments should be compacted away");
+        assertEquals(store.segmentCount(), countSegmentFiles());
+        assertEquals("value0", store.remove("key0").value, "Live values should survive compaction");
+    }
+
+    @Test
+    void testMaximumSizeDropsOldestSegment() {
+        store = new DiskStore<>(directory, Serializer.strings(), 64, 128L);
+        for (int i = 0; i < 20; i++) {
+            store.put("key" + i, "value" + i, Long.MAX_VALUE);
+        }
+
+        assertTrue(store.segmentCount() <= 2);
+        assertFalse(store.containsKey("key0"), "Oldest values should be dropped");
+        assertTrue(store.containsKey("key19"));
+    }
+
+    @Test
+    void testStaleSegmentsAreDeletedOnOpen() throws IOException {
+        Files.createFile(directory.resolve(DiskStore.SEGMENT_PREFIX + "00000007" + DiskStore.SEGMENT_SUFFIX));
+        store = new DiskStore<>(directory, Serializer.strings(), 64, Long.MAX_VALUE);
+
+        assertEquals(0L, countSegmentFiles());
+    }
+
+    private long countSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(DiskStore.SEGMENT_PREFIX)).count();
+        }
+    }
+}
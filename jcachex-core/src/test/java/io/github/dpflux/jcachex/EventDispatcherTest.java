@@ -0,0 +1,302 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventDispatcherTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testNoListeners() {
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(Collections.emptySet(), command -> {
+            throw new AssertionError("Nothing should be scheduled");
+        }, 16);
+
+        assertFalse(dispatcher.isEnabled());
+        dispatcher.put("key", 1);
+        dispatcher.evict("key", 1, EvictionReason.SIZE);
+        dispatcher.clear();
+    }
+
+    @Test
+    void testSynchronousDelivery() {
+        RecordingListener listener = new RecordingListener(0);
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), null, 16);
+
+        dispatcher.put("key", 1);
+        dispatcher.evict("key", 1, EvictionReason.SIZE);
+
+        assertEquals(0, listener.batches.size(), "Synchronous delivery should not batch");
+        assertEquals(2, listener.events.size());
+        assertEquals(CacheEvent.Type.EVICT, listener.events.get(1).getType());
+        assertEquals(EvictionReason.SIZE, listener.events.get(1).getReason());
+    }
+
+    @Test
+    void testBatchedDeliveryInOrder() throws InterruptedException {
+        RecordingListener listener = new RecordingListener(1000);
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), executor, 16);
+
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.put("key", i);
+        }
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), listener.events.get(i).getValue());
+        }
+        for (List<CacheEvent<String, Integer>> batch : listener.batches) {
+            assertTrue(batch.size() <= EventDispatcher.MAX_BATCH_SIZE);
+        }
+    }
+
+    @Test
+    void testOrderedPerKeyAcrossProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 2000;
+        RecordingListener listener = new RecordingListener(producers * perProducer);
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), executor, 64);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < producers; t++) {
+            String key = "key" + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    dispatcher.put(key, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        Map<String, Integer> last = new HashMap<>();
+        for (CacheEvent<String, Integer> event : listener.events) {
+            int previous = last.getOrDefault(event.getKey(), -1);
+            assertEquals(previous + 1, (int) event.getValue(), "Events of " + event.getKey() + " out of order");
+            last.put(event.getKey(), event.getValue());
+        }
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopOthers() throws InterruptedException {
+        CacheEventListener<String, Integer> failing = new RecordingListener(0) {
+            @Override
+            public void onEvents(List<CacheEvent<String, Integer>> events) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        RecordingListener listener = new RecordingListener(2);
+        List<CacheEventListener<String, Integer>> listeners = new ArrayList<>();
+        listeners.add(failing);
+        listeners.add(listener);
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(listeners, executor, 16);
+
+        dispatcher.put("key", 1);
+        dispatcher.loadError("key", new RuntimeException("load failed"));
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals("load failed", listener.events.get(1).getError().getMessage());
+    }
+
+    @Test
+    void testListenerMayPublishFromDrain() throws InterruptedException {
+        List<EventDispatcher<String, Integer>> holder = new ArrayList<>();
+        RecordingListener listener = new RecordingListener(2) {
+            @Override
+            public void onPut(String key, Integer value) {
+                super.onPut(key, value);
+                // Would wait forever for room in a full queue if delivered through it
+                holder.get(0).remove(key, value);
+            }
+        };
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), executor, 1);
+        holder.add(dispatcher);
+
+        dispatcher.put("key", 1);
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals(CacheEvent.Type.REMOVE, listener.events.get(1).getType());
+    }
+
+    @Test
+    void testFullQueueDropsAfterWaiting() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener listener = new RecordingListener(3) {
+            @Override
+            public void onEvents(List<CacheEvent<String, Integer>> events) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onEvents(events);
+            }
+        };
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), executor, 1, TimeUnit.MILLISECONDS.toNanos(10));
+
+        dispatcher.put("key", 1);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        dispatcher.put("key", 2);
+        dispatcher.put("key", 3);
+        release.countDown();
+
+        assertEquals(1L, dispatcher.droppedCount(), "The event that found the queue full should be dropped");
+        for (int i = 0; i < 500 && listener.events.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        dispatcher.put("key", 4);
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(4), listener.events.get(2).getValue());
+    }
+
+    @Test
+    void testBatchesAreUnmodifiable() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<Class<?>> failures = Collections.synchronizedList(new ArrayList<>());
+        CacheEventListener<String, Integer> mutating = new RecordingListener(0) {
+            @Override
+            public void onEvents(List<CacheEvent<String, Integer>> events) {
+                try {
+                    events.clear();
+                } catch (UnsupportedOperationException e) {
+                    failures.add(e.getClass());
+                }
+            }
+        };
+        RecordingListener listener = new RecordingListener(1) {
+            @Override
+            public void onEvents(List<CacheEvent<String, Integer>> events) {
+                super.onEvents(events);
+                delivered.countDown();
+            }
+        };
+        List<CacheEventListener<String, Integer>> listeners = new ArrayList<>();
+        listeners.add(mutating);
+        listeners.add(listener);
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(listeners, executor, 16);
+
+        dispatcher.put("key", 1);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, failures.size());
+        assertEquals(1, listener.events.size(), "A listener should not see another listener's changes");
+    }
+
+    @Test
+    void testDrainQueuesEventsFromListeners() throws InterruptedException {
+        List<EventDispatcher<String, Integer>> holder = new ArrayList<>();
+        RecordingListener listener = new RecordingListener(3) {
+            @Override
+            public void onPut(String key, Integer value) {
+                super.onPut(key, value);
+                if (value == 1) {
+                    holder.get(0).remove(key, value);
+                }
+            }
+        };
+        EventDispatcher<String, Integer> dispatcher = new EventDispatcher<>(
+                Collections.singleton(listener), executor, 16);
+        holder.add(dispatcher);
+        CountDownLatch queued = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                queued.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        dispatcher.put("key", 1);
+        dispatcher.put("key", 2);
+        queued.countDown();
+
+        assertTrue(listener.done.await(5, TimeUnit.SECONDS));
+        assertEquals(CacheEvent.Type.PUT, listener.events.get(1).getType(), "The listener's write should follow queued events");
+        assertEquals(CacheEvent.Type.REMOVE, listener.events.get(2).getType());
+    }
+
+    private static class RecordingListener implements CacheEventListener<String, Integer> {
+        final List<CacheEvent<String, Integer>> events = Collections.synchronizedList(new ArrayList<>());
+        final List<List<CacheEvent<String, Integer>>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        RecordingListener(int expected) {
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onEvents(List<CacheEvent<String, Integer>> events) {
+            batches.add(events);
+            CacheEventListener.super.onEvents(events);
+        }
+
+        private void record(CacheEvent.Type type, String key, Integer value, EvictionReason reason, Throwable error) {
+            events.add(new CacheEvent<>(type, key, value, reason, error));
+            done.countDown();
+        }
+
+        @Override
+        public void onPut(String key, Integer value) {
+            record(CacheEvent.Type.PUT, key, value, null, null);
+        }
+
+        @Override
+        public void onRemove(String key, Integer value) {
+            record(CacheEvent.Type.REMOVE, key, value, null, null);
+        }
+
+        @Override
+        public void onEvict(String key, Integer value, EvictionReason reason) {
+            record(CacheEvent.Type.EVICT, key, value, reason, null);
+        }
+
+        @Override
+        public void onExpire(String key, Integer value) {
+            record(CacheEvent.Type.EXPIRE, key, value, null, null);
+        }
+
+        @Override
+        public void onLoad(String key, Integer value) {
+            record(CacheEvent.Type.LOAD, key, value, null, null);
+        }
+
+        @Override
+        public void onLoadError(String key, Throwable error) {
+            record(CacheEvent.Type.LOAD_ERROR, key, null, null, error);
+        }
+
+        @Override
+        public void onClear() {
+            record(CacheEvent.Type.CLEAR, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptySnapshot() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0L, snapshot.count());
+        assertEquals(0L, snapshot.p99());
+        assertEquals(0L, snapshot.max());
+        assertEquals(LatencySnapshot.empty(), snapshot);
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(50_000_000L);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(1001L, snapshot.count());
+        assertEquals(50_000_000L, snapshot.max());
+        assertWithinPrecision(501_000L, snapshot.p50());
+        assertWithinPrecision(991_000L, snapshot.p99());
+        assertWithinPrecision(1_000_000L, snapshot.p999());
+        assertEquals(50_000_000L, snapshot.percentile(100.0));
+    }
+
+    @Test
+    void testBucketsCoverTheirValues() {
+        long[] values = { 0L, 1L, 31L, 32L, 33L, 63L, 64L, 1_000L, 123_456_789L, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueAt(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void testIntervalSnapshots() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_000L);
+        histogram.record(2_000_000L);
+
+        LatencySnapshot first = histogram.intervalSnapshot();
+        assertEquals(2L, first.count());
+        assertWithinPrecision(2_000_000L, first.max());
+
+        histogram.record(10_000L);
+        LatencySnapshot second = histogram.intervalSnapshot();
+        assertEquals(1L, second.count());
+        assertEquals(10_000L, second.max());
+        assertWithinPrecision(10_000L, second.p99());
+
+        assertEquals(0L, histogram.intervalSnapshot().count());
+        assertEquals(3L, histogram.snapshot().count(), "Interval snapshots should not reset the totals");
+    }
+
+    @Test
+    void testCacheRecordsLatency() {
+        CacheConfig<String, String> config = CacheConfig.<String, String>builder()
+                .loader(key -> "value_" + key)
+                .recordLatency(true)
+                .latencySampleInterval(1)
+                .build();
+        DefaultCache<String, String> cache = new DefaultCache<>(config);
+        cache.put("key1", "value1");
+        cache.get("key1");
+        cache.get("key2");
+
+        CacheStats stats = cache.stats();
+        assertEquals(1L, stats.putLatency().count());
+        assertEquals(2L, stats.readLatency().count());
+        assertEquals(1L, stats.loadLatency().count());
+        assertEquals(1L, cache.loadLatencyHistogram().intervalSnapshot().count());
+        cache.close();
+    }
+
+    @Test
+    void testLatencyDisabledByDefault() {
+        DefaultCache<String, String> cache = new DefaultCache<>(CacheConfig.<String, String>builder().build());
+        cache.put("key1", "value1");
+        cache.get("key1");
+
+        assertEquals(0L, cache.stats().readLatency().count());
+        assertNull(cache.readLatencyHistogram());
+        cache.close();
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertEquals(expected, actual, expected / 32.0, "Value should be within one sub-bucket");
+    }
+}
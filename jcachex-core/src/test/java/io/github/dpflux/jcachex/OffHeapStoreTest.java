@@ -0,0 +1,70 @@
+package io.github.dpflux.jcachex;
+
+import io.github.dpflux.jcachex.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStoreTest {
+
+    @Test
+    void testStoreAndRead() {
+        OffHeapStore<String> store = new OffHeapStore<>(Serializer.strings(), 64);
+        OffHeapStore.Handle first = store.store("first");
+        OffHeapStore.Handle second = store.store("second");
+
+        assertEquals("first", store.read(first));
+        assertEquals("second", store.read(second));
+        assertEquals(11L, store.liveBytes());
+        assertEquals(64L, store.allocatedBytes());
+    }
+
+    @Test
+    void testFreedValueIsNotReadable() {
+        OffHeapStore<String> store = new OffHeapStore<>(Serializer.strings(), 64);
+        OffHeapStore.Handle handle = store.store("value");
+        store.free(handle);
+        store.free(handle);
+
+        assertNull(store.read(handle));
+        assertEquals(0L, store.liveBytes());
+    }
+
+    @Test
+    void testOversizedValueGetsItsOwnSlab() {
+        OffHeapStore<String> store = new OffHeapStore<>(Serializer.strings(), 16);
+        OffHeapStore.Handle handle = store.store("a value larger than one slab");
+
+        assertEquals("a value larger than one slab", store.read(handle));
+        store.free(handle);
+        assertEquals(0L, store.allocatedBytes(), "Oversized slab should be released when freed");
+    }
+
+    @Test
+    void testCompactionReclaimsFragmentedSlabs() {
+        OffHeapStore<String> store = new OffHeapStore<>(Serializer.strings(), 100);
+        List<OffHeapStore.Handle> handles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            handles.add(store.store(String.format("value%03d", i)));
+        }
+        // Keep one value in ten so that every slab is mostly dead
+        for (int i = 0; i < handles.size(); i++) {
+            if (i % 10 != 0) {
+                store.free(handles.get(i));
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            store.free(store.store(String.format("fresh%04d", i)));
+        }
+
+        for (int i = 0; i < handles.size(); i += 10) {
+            assertEquals(String.format("value%03d", i), store.read(handles.get(i)),
+                    "Relocated values should stay readable");
+        }
+        assertTrue(store.allocatedBytes() <= 400L,
+                "Compaction should keep memory bounded, but " + store.allocatedBytes() + " bytes are allocated");
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.ReferenceQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceEntryTest {
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    @Test
+    void testKeysCompareByIdentity() {
+        String key = new String("key");
+        ReferenceEntry.WeakKey<String> weakKey = new ReferenceEntry.WeakKey<>(key, queue);
+
+        assertEquals(weakKey, new ReferenceEntry.LookupKey<>(key));
+        assertEquals(new ReferenceEntry.LookupKey<>(key), weakKey);
+        assertEquals(weakKey.hashCode(), new ReferenceEntry.LookupKey<>(key).hashCode());
+        assertNotEquals(weakKey, new ReferenceEntry.LookupKey<>(new String("key")));
+        assertNotEquals(weakKey, key);
+    }
+
+    @Test
+    void testClearedKeyOnlyEqualsItself() {
+        String key = new String("key");
+        ReferenceEntry.WeakKey<String> weakKey = new ReferenceEntry.WeakKey<>(key, queue);
+        ReferenceEntry.WeakKey<String> other = new ReferenceEntry.WeakKey<>(key, queue);
+        weakKey.clear();
+
+        assertEquals(weakKey, weakKey);
+        assertNotEquals(weakKey, other);
+        assertNotEquals(other, weakKey);
+    }
+
+    @Test
+    void testCollectedValue() {
+        String value = new String("value");
+        ReferenceEntry.WeakValue<String> reference = new ReferenceEntry.WeakValue<>(value, "key", queue);
+        ReferenceEntry<String> entry = new ReferenceEntry<>(null, reference, value, 1L, 0L,
+                CacheEntry.NO_EXPIRATION);
+
+        assertSame(value, entry.getValue());
+        assertFalse(entry.isCollected());
+        assertNull(entry.keyReference());
+        assertEquals("key", reference.mapKey());
+
+        reference.clear();
+        assertNull(entry.getValue());
+        assertTrue(entry.isCollected());
+    }
+
+    @Test
+    void testCollectedKey() {
+        ReferenceEntry.WeakKey<String> weakKey = new ReferenceEntry.WeakKey<>(new String("key"), queue);
+        ReferenceEntry<String> entry = new ReferenceEntry<>(weakKey, null, "value", 1L, 0L,
+                CacheEntry.NO_EXPIRATION);
+
+        assertSame(weakKey, entry.keyReference());
+        assertEquals("value", entry.getValue());
+
+        weakKey.clear();
+        assertTrue(entry.isCollected());
+    }
+
+    @Test
+    void testStrongEntryIsNeverCollected() {
+        CacheEntry<String> entry = new CacheEntry<>("value", 1L, 0L, CacheEntry.NO_EXPIRATION);
+
+        assertFalse(entry.isCollected());
+        assertNull(entry.keyReference());
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsCounterTest {
+
+    @Test
+    void testConcurrentStatsCounter() {
+        StatsCounter counter = new ConcurrentStatsCounter();
+        counter.recordHit();
+        counter.recordHit();
+        counter.recordMiss();
+        counter.recordEviction();
+        counter.recordLoad(100L);
+        counter.recordLoadFailure();
+        counter.recordCoalescedLoad();
+
+        assertEquals(CacheStats.of(2L, 1L, 1L, 1L, 1L, 100L, 1L), counter.snapshot());
+    }
+
+    @Test
+    void testSnapshotIsDetached() {
+        StatsCounter counter = new ConcurrentStatsCounter();
+        counter.recordHit();
+        CacheStats snapshot = counter.snapshot();
+        counter.recordHit();
+
+        assertEquals(1L, snapshot.hitCount(), "Snapshot should not see later recordings");
+        snapshot.recordMiss();
+        snapshot.reset();
+        assertEquals(2L, counter.snapshot().hitCount(), "Counter should not see changes to a snapshot");
+        assertEquals(0L, counter.snapshot().missCount());
+    }
+
+    @Test
+    void testDisabledStatsCounter() {
+        StatsCounter counter = StatsCounter.disabled();
+        counter.recordHit();
+        counter.recordLoad(100L);
+
+        assertEquals(0L, counter.snapshot().hitCount());
+        assertEquals(0L, counter.snapshot().loadCount());
+    }
+
+    @Test
+    void testCacheHonorsRecordStats() {
+        CacheConfig<String, String> config = CacheConfig.<String, String>builder()
+                .recordStats(false)
+                .build();
+        DefaultCache<String, String> cache = new DefaultCache<>(config);
+        cache.put("key1", "value1");
+        cache.get("key1");
+        cache.get("key2");
+
+        assertEquals(0L, cache.stats().hitCount());
+        assertEquals(0L, cache.stats().missCount());
+        cache.close();
+    }
+
+    @Test
+    void testCustomStatsCounter() {
+        StatsCounter counter = new ConcurrentStatsCounter();
+        CacheConfig<String, String> config = CacheConfig.<String, String>builder()
+                .statsCounter(() -> counter)
+                .build();
+        DefaultCache<String, String> cache = new DefaultCache<>(config);
+        cache.put("key1", "value1");
+        cache.get("key1");
+
+        assertEquals(1L, counter.snapshot().hitCount());
+        assertEquals(counter.snapshot(), cache.stats());
+        cache.close();
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.dpflux.jcachex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    private TimerWheel<String, String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel<>(0L);
+        expired = new ArrayList<>();
+    }
+
+    private void advance(long time, TimeUnit unit) {
+        wheel.advance(unit.toNanos(time), (key, entry) -> expired.add(key));
+    }
+
+    @Test
+    void testExpiresOnlyDueTimers() {
+        wheel.schedule("a", null, TimeUnit.SECONDS.toNanos(2));
+        wheel.schedule("b", null, TimeUnit.SECONDS.toNanos(30));
+        wheel.schedule("c", null, TimeUnit.MINUTES.toNanos(10));
+        wheel.schedule("d", null, TimeUnit.HOURS.toNanos(5));
+
+        advance(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a"), expired);
+
+        advance(40, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a", "b"), expired);
+
+        advance(11, TimeUnit.MINUTES);
+        assertEquals(Arrays.asList("a", "b", "c"), expired);
+
+        advance(6, TimeUnit.HOURS);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), expired);
+    }
+
+    @Test
+    void testCascadesWithoutFiringEarly() {
+        wheel.schedule("a", null, TimeUnit.MINUTES.toNanos(3) + TimeUnit.SECONDS.toNanos(20));
+
+        advance(3, TimeUnit.MINUTES);
+        assertTrue(expired.isEmpty(), "Timer should not fire before its deadline");
+
+        advance(4, TimeUnit.MINUTES);
+        assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    void testRescheduleAndCancel() {
+        TimerWheel.Node<String, String> a = wheel.schedule("a", null, TimeUnit.SECONDS.toNanos(2));
+        TimerWheel.Node<String, String> b = wheel.schedule("b", null, TimeUnit.SECONDS.toNanos(2));
+        wheel.reschedule(a, TimeUnit.SECONDS.toNanos(20));
+        wheel.cancel(b);
+
+        advance(5, TimeUnit.SECONDS);
+        assertTrue(expired.isEmpty());
+
+        advance(25, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    void testOverdueTimerFiresOnNextTick() {
+        advance(10, TimeUnit.SECONDS);
+        wheel.schedule("a", null, TimeUnit.SECONDS.toNanos(1));
+
+        advance(12, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a"), expired);
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ARCEvictionStrategyTest {
+
+    @Test
+    void testFrequentEntriesSurviveNewInsertions() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumSize(4L)
+                .evictionStrategy(new ARCEvictionStrategy<>(4L))
+                .build();
+        Cache<String, String> cache = new DefaultCache<>(cacheConfig);
+        cache.put("A", "ValueA");
+        cache.put("B", "ValueB");
+        cache.put("C", "ValueC");
+        cache.put("D", "ValueD");
+        cache.get("A");
+        cache.get("B");
+
+        cache.put("E", "ValueE");
+        cache.put("F", "ValueF");
+
+        assertEquals(4, cache.size(), "Cache should stay at its maximum size.");
+        assertTrue(cache.containsKey("A"), "Cache should contain frequently used key 'A'.");
+        assertTrue(cache.containsKey("B"), "Cache should contain frequently used key 'B'.");
+        assertFalse(cache.containsKey("C"), "Key 'C' seen once should be evicted.");
+        assertFalse(cache.containsKey("D"), "Key 'D' seen once should be evicted.");
+    }
+
+    @Test
+    void testGhostHitsAdaptRecencyTarget() {
+        ARCEvictionStrategy<String, String> strategy = new ARCEvictionStrategy<>(2L);
+        strategy.update("A", null);
+        strategy.update("B", null);
+        assertEquals("A", strategy.selectEvictionCandidate());
+        strategy.remove("A");
+
+        strategy.update("A", null);
+        assertEquals(1L, strategy.recencyTarget(), "A hit in B1 should grow the recency target.");
+        assertEquals("A", strategy.selectEvictionCandidate(), "T1 within its target should be spared.");
+        strategy.remove("A");
+
+        strategy.update("A", null);
+        assertEquals(0L, strategy.recencyTarget(), "A hit in B2 should shrink the recency target.");
+        assertEquals("B", strategy.selectEvictionCandidate(), "T1 over its target should yield the victim.");
+    }
+
+    @Test
+    void testGhostListsAreBounded() {
+        ARCEvictionStrategy<Integer, String> strategy = new ARCEvictionStrategy<>(4L);
+        int resident = 0;
+        for (int i = 0; i < 100; i++) {
+            strategy.update(i % 10 == 0 ? 0 : i, null);
+            if (++resident > 4) {
+                strategy.remove(strategy.selectEvictionCandidate());
+                resident--;
+            }
+        }
+
+        assertTrue(strategy.trackedSize() <= 8, "Resident and ghost keys should not exceed twice the maximum size.");
+    }
+
+    @Test
+    void testSelectionsBeforeRemovalPickDistinctVictims() {
+        ARCEvictionStrategy<String, String> strategy = new ARCEvictionStrategy<>(4L);
+        strategy.update("A", null);
+        strategy.update("B", null);
+
+        assertEquals("A", strategy.selectEvictionCandidate());
+        assertEquals("B", strategy.selectEvictionCandidate(), "A selected victim should not be selected again.");
+        strategy.remove("B");
+        strategy.remove("A");
+
+        assertEquals(2, strategy.trackedSize(), "Both victims should be remembered as ghosts.");
+        strategy.update("A", null);
+        assertEquals(1L, strategy.recencyTarget(), "A hit in B1 should grow the recency target.");
+    }
+
+    @Test
+    void testExplicitRemovalIsForgotten() {
+        ARCEvictionStrategy<String, String> strategy = new ARCEvictionStrategy<>(2L);
+        strategy.update("A", null);
+        strategy.remove("A");
+
+        assertEquals(0, strategy.trackedSize(), "Removed keys should not be remembered as ghosts.");
+        assertNull(strategy.selectEvictionCandidate());
+    }
+
+    @Test
+    void testClear() {
+        ARCEvictionStrategy<String, String> strategy = new ARCEvictionStrategy<>(2L);
+        strategy.update("A", null);
+        strategy.update("B", null);
+        strategy.remove(strategy.selectEvictionCandidate());
+        strategy.update("A", null);
+
+        strategy.clear();
+        assertEquals(0L, strategy.recencyTarget());
+        assertEquals(0, strategy.trackedSize());
+        assertNull(strategy.selectEvictionCandidate());
+    }
+
+    @Test
+    void testInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ARCEvictionStrategy<String, String>(0L));
+    }
+}
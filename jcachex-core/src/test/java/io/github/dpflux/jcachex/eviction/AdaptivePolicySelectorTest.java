@@ -0,0 +1,178 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.CacheEntry;
+import io.github.dpflux.jcachex.CacheStats;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePolicySelectorTest {
+    private static final CacheEntry<String> ENTRY = new CacheEntry<>("value", 1L, null);
+
+    @Test
+    void testSwitchesToPolicyWithHigherShadowHitRate() {
+        AdaptivePolicySelector<String, String> selector = new AdaptivePolicySelector<>(100L, recencyAndFrequency());
+        Set<String> resident = new HashSet<>();
+        assertEquals("LRU", selector.activePolicy());
+
+        for (int round = 0; round < 30; round++) {
+            hotThenScan(selector, resident, round);
+        }
+
+        assertEquals("LFU", selector.activePolicy(), "Scans should favour the frequency policy.");
+        assertEquals(1L, selector.switchCount());
+        Map<String, Double> hitRates = selector.shadowHitRates();
+        assertTrue(hitRates.get("LFU") > hitRates.get("LRU") + 0.1, "Shadow hit rates: " + hitRates);
+    }
+
+    @Test
+    void testMigratesWithoutRebuilding() {
+        AdaptivePolicySelector<String, String> selector = new AdaptivePolicySelector<>(100L, recencyAndFrequency());
+        Set<String> resident = new HashSet<>();
+        int round = 0;
+        while (selector.switchCount() == 0L) {
+            hotThenScan(selector, resident, round++);
+        }
+        // Twice, as the new policy only counts accesses made since the switch
+        for (int i = 0; i < 100; i++) {
+            access(selector, resident, "hot" + (i % 50));
+        }
+
+        String candidate = selector.selectEvictionCandidate();
+        assertNotNull(candidate);
+        assertFalse(candidate.startsWith("hot"), "Keys used since the switch should not be evicted first.");
+        for (int i = 0; i < 1000; i++) {
+            access(selector, resident, "new" + i);
+        }
+        assertEquals(100, resident.size(), "Eviction should keep working through the migration.");
+    }
+
+    @Test
+    void testDefaultCandidates() {
+        AdaptivePolicySelector<String, String> selector = new AdaptivePolicySelector<>(100L);
+        Set<String> resident = new HashSet<>();
+        for (int round = 0; round < 10; round++) {
+            hotThenScan(selector, resident, round);
+        }
+
+        assertEquals(new ArrayList<>(Arrays.asList("LRU", "SIEVE", "S3-FIFO", "ARC", "W-TinyLFU")), new ArrayList<>(selector.shadowHitRates().keySet()));
+        assertEquals(100, resident.size());
+    }
+
+    @Test
+    void testPolicySelectionIsReportedInCacheStats() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumSize(100L)
+                .evictionStrategy(new AdaptivePolicySelector<>(100L, recencyAndFrequency()))
+                .build();
+        Cache<String, String> cache = new DefaultCache<>(cacheConfig);
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get("hot" + i) == null) {
+                    cache.put("hot" + i, "value");
+                }
+            }
+            for (int i = 0; i < 100; i++) {
+                cache.put("scan" + round + "_" + i, "value");
+            }
+        }
+
+        CacheStats stats = cache.stats();
+        assertEquals("LFU", stats.activePolicy());
+        assertEquals(1L, stats.policySwitchCount());
+        assertEquals(2, stats.shadowHitRates().size());
+        assertTrue(cache.size() <= 100);
+
+        Cache<String, String> plain = new DefaultCache<>(new CacheConfig.Builder<String, String>()
+                .maximumSize(100L)
+                .build());
+        assertNull(plain.stats().activePolicy());
+        assertTrue(plain.stats().shadowHitRates().isEmpty());
+    }
+
+    @Test
+    void testWritesAreNotCountedAsRequests() {
+        AdaptivePolicySelector<String, String> selector = new AdaptivePolicySelector<>(100L, recencyAndFrequency());
+        for (int i = 0; i < 10_000; i++) {
+            selector.update("key" + (i % 50), ENTRY);
+        }
+        assertEquals(0.0, selector.shadowHitRates().get("LRU"), "Puts of present keys are not hits.");
+
+        for (int i = 0; i < 800; i++) {
+            selector.access("key" + (i % 50), ENTRY);
+        }
+        assertEquals(1.0, selector.shadowHitRates().get("LRU"));
+
+        for (int i = 0; i < 800; i++) {
+            selector.miss("absent" + i);
+        }
+        assertEquals(0.0, selector.shadowHitRates().get("LRU"));
+        assertEquals(0L, selector.switchCount());
+    }
+
+    @Test
+    void testClear() {
+        AdaptivePolicySelector<String, String> selector = new AdaptivePolicySelector<>(100L, recencyAndFrequency());
+        selector.update("A", ENTRY);
+        selector.clear();
+
+        assertNull(selector.selectEvictionCandidate());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePolicySelector<String, String>(0L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptivePolicySelector<String, String>(100L, new LinkedHashMap<>()));
+    }
+
+    private static Map<String, LongFunction<EvictionStrategy<String, String>>> recencyAndFrequency() {
+        Map<String, LongFunction<EvictionStrategy<String, String>>> candidates = new LinkedHashMap<>();
+        candidates.put("LRU", size -> new LRUEvictionStrategy<>());
+        candidates.put("LFU", size -> new LFUEvictionStrategy<>());
+        return candidates;
+    }
+
+    /**
+     * Reuses a hot set that fits the cache, then scans enough new keys to
+     * flush it from a recency-ordered cache.
+     */
+    private static void hotThenScan(AdaptivePolicySelector<String, String> selector, Set<String> resident,
+            int round) {
+        for (int i = 0; i < 50; i++) {
+            access(selector, resident, "hot" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            access(selector, resident, "scan" + round + "_" + i);
+        }
+    }
+
+    /**
+     * Reads the key as the cache would, loading it on a miss.
+     */
+    private static void access(AdaptivePolicySelector<String, String> selector, Set<String> resident, String key) {
+        if (resident.contains(key)) {
+            selector.access(key, ENTRY);
+            return;
+        }
+        selector.miss(key);
+        selector.update(key, ENTRY);
+        resident.add(key);
+        while (resident.size() > 100) {
+            String victim = selector.selectEvictionCandidate();
+            selector.remove(victim);
+            resident.remove(victim);
+        }
+    }
+}
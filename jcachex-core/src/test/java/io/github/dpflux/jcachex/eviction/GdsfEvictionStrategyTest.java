@@ -0,0 +1,138 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.CacheEntry;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GdsfEvictionStrategyTest {
+
+    @Test
+    void testCheapLargeValuesAreEvictedBeforeExpensiveSmallOnes() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumWeight(100L)
+                .weigher((key, value) -> (long) value.length())
+                .evictionStrategy(new GdsfEvictionStrategy<>())
+                .loader(key -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "expensive!";
+                })
+                .build();
+        Cache<String, String> cache = new DefaultCache<>(cacheConfig);
+        cache.put("big", repeat('b', 60));
+        assertEquals("expensive!", cache.get("expensive"));
+
+        cache.put("other", repeat('o', 40));
+
+        assertFalse(cache.containsKey("big"), "Large value that is cheap to reload should be evicted.");
+        assertTrue(cache.containsKey("expensive"), "Small value that is expensive to reload should stay.");
+        assertTrue(cache.containsKey("other"), "Cache should contain the new value.");
+    }
+
+    @Test
+    void testFrequentEntryIsKept() {
+        GdsfEvictionStrategy<String, String> strategy = new GdsfEvictionStrategy<>();
+        strategy.update("A", entry(1L));
+        strategy.update("B", entry(1L));
+        strategy.update("A", entry(1L));
+
+        assertEquals("B", strategy.selectEvictionCandidate());
+    }
+
+    @Test
+    void testHeavyEntryIsEvictedFirst() {
+        GdsfEvictionStrategy<String, String> strategy = new GdsfEvictionStrategy<>();
+        strategy.update("A", entry(10L));
+        strategy.update("B", entry(1L));
+
+        assertEquals("A", strategy.selectEvictionCandidate());
+    }
+
+    @Test
+    void testClockInflatesOnEviction() {
+        GdsfEvictionStrategy<String, String> strategy = new GdsfEvictionStrategy<>();
+        strategy.update("A", entry(1L));
+        strategy.update("B", entry(1L));
+        strategy.update("B", entry(1L));
+        strategy.remove(strategy.selectEvictionCandidate());
+        assertEquals(1.0, strategy.clock(), "Clock should advance to the victim's priority.");
+
+        strategy.update("C", entry(1L));
+        strategy.update("D", entry(1L));
+        strategy.remove("D");
+        assertEquals(1.0, strategy.clock(), "Explicit removals should not advance the clock.");
+        assertEquals("B", strategy.selectEvictionCandidate(), "Newer entries should outrank aged ones.");
+    }
+
+    @Test
+    void testClockInflatesOnSelection() {
+        GdsfEvictionStrategy<String, String> strategy = new GdsfEvictionStrategy<>();
+        strategy.update("A", entry(1L));
+        strategy.update("B", entry(1L));
+        strategy.update("B", entry(1L));
+
+        assertEquals("A", strategy.selectEvictionCandidate());
+        assertEquals(1.0, strategy.clock(), "Clock should advance as soon as the victim is selected.");
+        // Another eviction selects before the first one removes its victim
+        strategy.update("C", entry(10L));
+        strategy.selectEvictionCandidate();
+        strategy.remove("A");
+
+        assertEquals(1.0, strategy.clock(), "An interleaved selection should not undo the inflation.");
+    }
+
+    @Test
+    void testSelectsLowestPriorityAfterRandomUpdates() {
+        GdsfEvictionStrategy<Integer, String> strategy = new GdsfEvictionStrategy<>();
+        Map<Integer, Double> priorities = new HashMap<>();
+        Map<Integer, Long> frequencies = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(100);
+            if (random.nextInt(4) == 0) {
+                strategy.remove(key);
+                priorities.remove(key);
+                frequencies.remove(key);
+            } else {
+                long weight = 1 + random.nextInt(50);
+                long frequency = frequencies.merge(key, 1L, Long::sum);
+                double clock = strategy.clock();
+                strategy.update(key, entry(weight));
+                priorities.put(key, clock + (double) frequency / weight);
+            }
+            Integer candidate = strategy.selectEvictionCandidate();
+            double lowest = priorities.values().stream().min(Double::compare).orElse(0.0);
+            if (candidate == null) {
+                assertTrue(priorities.isEmpty());
+            } else {
+                assertEquals(lowest, priorities.get(candidate), 1e-9);
+            }
+        }
+
+        strategy.clear();
+        assertNull(strategy.selectEvictionCandidate());
+    }
+
+    private static CacheEntry<String> entry(long weight) {
+        return new CacheEntry<>("value", weight, null);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
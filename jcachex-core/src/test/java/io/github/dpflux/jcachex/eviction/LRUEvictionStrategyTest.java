@@ -51,4 +51,24 @@ class LRUEvictionStrategyTest {
         assertTrue(cache.containsKey("B"), "Cache should contain key 'B'.");
         assertTrue(cache.containsKey("C"), "Cache should contain key 'C'.");
     }
+
+    @Test
+    void testStrategyOrdering() {
+        LRUEvictionStrategy<String, String> strategy = new LRUEvictionStrategy<>();
+        assertNull(strategy.selectEvictionCandidate(), "Empty strategy should have no candidate.");
+
+        strategy.update("A", null);
+        strategy.update("B", null);
+        strategy.update("C", null);
+        assertEquals("A", strategy.selectEvictionCandidate());
+
+        strategy.update("A", null); // promote A
+        assertEquals("B", strategy.selectEvictionCandidate());
+
+        strategy.remove("B");
+        assertEquals("C", strategy.selectEvictionCandidate());
+
+        strategy.clear();
+        assertNull(strategy.selectEvictionCandidate(), "Cleared strategy should have no candidate.");
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3FifoEvictionStrategyTest {
+
+    @Test
+    void testScanDoesNotFlushHotEntries() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumSize(10L)
+                .evictionStrategy(new S3FifoEvictionStrategy<>(10L))
+                .build();
+        Cache<String, String> cache = new DefaultCache<>(cacheConfig);
+        for (int i = 0; i < 5; i++) {
+            cache.put("hot" + i, "value" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot" + i);
+            cache.get("hot" + i);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("scan" + i, "value" + i);
+        }
+
+        assertEquals(10, cache.size(), "Cache should stay at its maximum size.");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.containsKey("hot" + i), "Cache should contain hot key 'hot" + i + "'.");
+        }
+        assertTrue(cache.containsKey("scan49"), "Most recent key should be on probation.");
+    }
+
+    @Test
+    void testUnaccessedEntryIsEvictedFromSmallQueue() {
+        S3FifoEvictionStrategy<String, String> strategy = new S3FifoEvictionStrategy<>(10L);
+        strategy.update("A", null);
+        strategy.update("B", null);
+
+        assertEquals("A", strategy.selectEvictionCandidate(), "Oldest probationary key should be evicted.");
+    }
+
+    @Test
+    void testAccessedEntryIsPromoted() {
+        S3FifoEvictionStrategy<String, String> strategy = new S3FifoEvictionStrategy<>(10L);
+        strategy.update("A", null);
+        strategy.update("A", null);
+        strategy.update("B", null);
+
+        assertEquals("B", strategy.selectEvictionCandidate(), "Accessed key 'A' should move to the main queue.");
+        strategy.remove("B");
+        assertEquals("A", strategy.selectEvictionCandidate(), "Main queue should yield once its frequency is spent.");
+    }
+
+    @Test
+    void testGhostHitIsInsertedIntoMainQueue() {
+        S3FifoEvictionStrategy<String, String> strategy = new S3FifoEvictionStrategy<>(10L);
+        strategy.update("A", null);
+        assertEquals("A", strategy.selectEvictionCandidate());
+        strategy.remove("A");
+
+        strategy.update("A", null);
+        strategy.update("B", null);
+
+        assertEquals("B", strategy.selectEvictionCandidate(), "Key 'A' should bypass probation after a ghost hit.");
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        S3FifoEvictionStrategy<String, String> strategy = new S3FifoEvictionStrategy<>(10L);
+        assertNull(strategy.selectEvictionCandidate());
+
+        strategy.update("A", null);
+        strategy.update("B", null);
+        strategy.remove("A");
+        assertEquals("B", strategy.selectEvictionCandidate());
+
+        strategy.clear();
+        assertNull(strategy.selectEvictionCandidate());
+    }
+
+    @Test
+    void testInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new S3FifoEvictionStrategy<String, String>(0L));
+    }
+}
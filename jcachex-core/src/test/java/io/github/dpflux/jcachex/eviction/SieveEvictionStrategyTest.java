@@ -0,0 +1,83 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SieveEvictionStrategyTest {
+    private Cache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumSize(3L)
+                .evictionStrategy(new SieveEvictionStrategy<>())
+                .build();
+        cache = new DefaultCache<>(cacheConfig);
+        cache.put("A", "ValueA");
+        cache.put("B", "ValueB");
+        cache.put("C", "ValueC");
+    }
+
+    @Test
+    void testEvictsOldestUnvisitedEntry() {
+        cache.put("D", "ValueD");
+
+        assertEquals(3, cache.size(), "Cache should stay at its maximum size.");
+        assertFalse(cache.containsKey("A"), "Oldest unvisited key 'A' should be evicted.");
+        assertTrue(cache.containsKey("D"), "Cache should contain new key 'D'.");
+    }
+
+    @Test
+    void testVisitedEntryGetsSecondChance() {
+        cache.get("A");
+        cache.put("D", "ValueD");
+
+        assertTrue(cache.containsKey("A"), "Visited key 'A' should survive the sweep.");
+        assertFalse(cache.containsKey("B"), "Unvisited key 'B' should be evicted.");
+    }
+
+    @Test
+    void testHandResumesAfterEviction() {
+        cache.get("A");
+        cache.put("D", "ValueD");
+        // The hand cleared A's bit and evicted B, so it resumes at C
+        cache.get("A");
+        cache.put("E", "ValueE");
+
+        assertTrue(cache.containsKey("A"), "Key 'A' should not be revisited before the hand wraps.");
+        assertFalse(cache.containsKey("C"), "Key 'C' should be evicted next.");
+        assertTrue(cache.containsKey("D"), "Cache should contain key 'D'.");
+        assertTrue(cache.containsKey("E"), "Cache should contain key 'E'.");
+    }
+
+    @Test
+    void testAllVisitedEvictsAfterFullLap() {
+        SieveEvictionStrategy<String, String> strategy = new SieveEvictionStrategy<>();
+        strategy.update("A", null);
+        strategy.update("B", null);
+        strategy.update("A", null);
+        strategy.update("B", null);
+
+        assertEquals("A", strategy.selectEvictionCandidate(), "Sweep should wrap around to the oldest key.");
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        SieveEvictionStrategy<String, String> strategy = new SieveEvictionStrategy<>();
+        assertNull(strategy.selectEvictionCandidate());
+
+        strategy.update("A", null);
+        strategy.update("B", null);
+        assertEquals("A", strategy.selectEvictionCandidate());
+        strategy.remove("A");
+        assertEquals("B", strategy.selectEvictionCandidate());
+
+        strategy.clear();
+        assertNull(strategy.selectEvictionCandidate());
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.dpflux.jcachex.eviction;
+
+import io.github.dpflux.jcachex.Cache;
+import io.github.dpflux.jcachex.CacheConfig;
+import io.github.dpflux.jcachex.DefaultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WTinyLFUEvictionStrategyTest {
+    private Cache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig<String, String> cacheConfig = new CacheConfig.Builder<String, String>()
+                .maximumSize(3L)
+                .evictionStrategy(new WTinyLFUEvictionStrategy<>(3L))
+                .build();
+        cache = new DefaultCache<>(cacheConfig);
+        cache.put("A", "ValueA");
+        cache.put("B", "ValueB");
+        for (int i = 0; i < 5; i++) {
+            cache.get("A");
+            cache.get("B");
+        }
+    }
+
+    @Test
+    void testScanDoesNotFlushHotEntries() {
+        for (int i = 0; i < 20; i++) {
+            cache.put("scan" + i, "value" + i);
+        }
+
+        assertEquals(3, cache.size(), "Cache should stay at its maximum size.");
+        assertTrue(cache.containsKey("A"), "Cache should contain hot key 'A'.");
+        assertTrue(cache.containsKey("B"), "Cache should contain hot key 'B'.");
+        assertTrue(cache.containsKey("scan19"), "Most recent key should be kept in the admission window.");
+    }
+
+    @Test
+    void testFrequentCandidateIsAdmitted() {
+        cache.put("C", "ValueC");
+        for (int i = 0; i < 10; i++) {
+            cache.get("C");
+        }
+        cache.put("D", "ValueD");
+        cache.put("E", "ValueE");
+
+        assertTrue(cache.containsKey("C"), "Frequently used key 'C' should be admitted.");
+        assertFalse(cache.containsKey("D"), "Cold key 'D' should be rejected.");
+        assertEquals(3, cache.size(), "Cache should stay at its maximum size.");
+    }
+
+    @Test
+    void testOnlyEntriesLeavingTheWindowCompete() {
+        WTinyLFUEvictionStrategy<String, String> strategy = new WTinyLFUEvictionStrategy<>(3L);
+        for (int i = 0; i < 4; i++) {
+            strategy.update("X", null);
+        }
+        strategy.update("A", null);
+        strategy.update("A", null);
+        strategy.update("B", null);
+        strategy.update("A", null); // A is promoted to the protected segment
+        strategy.update("C", null);
+        strategy.update("B", null);
+
+        assertEquals("C", strategy.selectEvictionCandidate(),
+                "The cold entry leaving the window should lose to the probation victim.");
+        strategy.remove("C");
+        strategy.update("D", null);
+        assertEquals("B", strategy.selectEvictionCandidate(),
+                "The entry just written should stay in the window.");
+
+        strategy.remove("B");
+        for (int i = 0; i < 10; i++) {
+            strategy.update("D", null);
+        }
+        strategy.update("E", null);
+        assertEquals("X", strategy.selectEvictionCandidate(),
+                "A frequent window entry should displace the probation victim.");
+    }
+
+    @Test
+    void testClear() {
+        cache.clear();
+        cache.put("C", "ValueC");
+        cache.put("D", "ValueD");
+        cache.put("E", "ValueE");
+
+        assertEquals(3, cache.size(), "Cache should refill after clear.");
+        assertFalse(cache.containsKey("A"), "Cache should not contain key 'A' after clear.");
+    }
+
+    @Test
+    void testInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new WTinyLFUEvictionStrategy<String, String>(0L));
+    }
+
+    @Test
+    void testFrequencySketch() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+        assertEquals(0, sketch.frequency("A"));
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("A");
+        }
+        assertEquals(5, sketch.frequency("A"));
+
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("B");
+        }
+        assertEquals(15, sketch.frequency("B"), "Counters should saturate at 15.");
+
+        sketch.clear();
+        assertEquals(0, sketch.frequency("B"));
+    }
+
+    @Test
+    void testFrequencySketchAging() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(-1);
+        }
+        for (int i = 0; i < 200; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency(-1) < 8, "Counters should be halved once the sample size is reached.");
+    }
+}
@@ -3,7 +3,8 @@ rootProject.name = "JCacheX"
 include(
     "jcachex-core",
     "jcachex-kotlin",
-    "jcachex-spring"
+    "jcachex-spring",
+    "jcachex-benchmarks"
 )
 
 dependencyResolutionManagement {